@@ -0,0 +1,17 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.AiJob;
+
+/**
+ * Does the work of one {@link AiJob.Type} for {@link AiJobQueue}.
+ */
+public interface AiJobHandler {
+    AiJob.Type type();
+
+    /**
+     * Run the job. Throwing schedules a retry with backoff.
+     *
+     * @return false when the subject changed or disappeared and nothing was done
+     */
+    boolean handle(AiJob job) throws Exception;
+}
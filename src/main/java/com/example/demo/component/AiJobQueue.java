@@ -0,0 +1,228 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.AiJob;
+import com.example.demo.repository.AiJobRepository;
+import com.example.demo.util.TransactionUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue for background LLM calls, backed by the ai_jobs table.
+ * <p>
+ * {@link #enqueue} writes the job in the caller's transaction, so it survives
+ * a restart together with the row it belongs to. Due jobs are claimed with a
+ * conditional UPDATE (safe with several instances) and run on virtual threads,
+ * at most ai.jobs.concurrency at a time. Failures are retried with exponential
+ * backoff and jitter up to ai.jobs.max-attempts. A claimed job holds a lease;
+ * if the instance dies mid-call the lease runs out and the job is picked up again.
+ * On shutdown polling stops and running jobs get ai.jobs.drain-timeout to finish.
+ * That happens in the lifecycle stop phase, before any bean is destroyed, so
+ * draining jobs still have LlmGateway (whose executor is shut down on destroy)
+ * and everything else their handlers use.
+ */
+@Slf4j
+@Component
+public class AiJobQueue implements SmartLifecycle {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AiJobRepository aiJobRepository;
+    // Resolved on first use: handlers may depend on services that enqueue jobs themselves
+    private final ObjectProvider<AiJobHandler> handlerProvider;
+    private volatile Map<AiJob.Type, AiJobHandler> handlers;
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration drainTimeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+
+    public AiJobQueue(AiJobRepository aiJobRepository, ObjectProvider<AiJobHandler> handlerProvider,
+            MeterRegistry meterRegistry,
+            @Value("${ai.jobs.concurrency:4}") int concurrency,
+            @Value("${ai.jobs.max-attempts:5}") int maxAttempts,
+            @Value("${ai.jobs.base-backoff:PT10S}") Duration baseBackoff,
+            @Value("${ai.jobs.max-backoff:PT10M}") Duration maxBackoff,
+            @Value("${ai.jobs.lease:PT5M}") Duration lease,
+            @Value("${ai.jobs.drain-timeout:PT30S}") Duration drainTimeout) {
+        this.aiJobRepository = aiJobRepository;
+        this.handlerProvider = handlerProvider;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.drainTimeout = drainTimeout;
+        this.permits = new Semaphore(concurrency);
+
+        meterRegistry.gauge("ai.jobs.running", permits, p -> concurrency - p.availablePermits());
+    }
+
+    /**
+     * Queue a job for the subject's current content, in the caller's transaction.
+     * Pending jobs for older content of the same subject are dropped; the same
+     * content queued twice stays one job. Workers are woken after commit.
+     */
+    public void enqueue(AiJob.Type type, Long subjectId, String contentHash) {
+        LocalDateTime now = LocalDateTime.now();
+        aiJobRepository.supersedePending(type, subjectId, contentHash, now);
+        aiJobRepository.upsertPending(type.name(), subjectId, contentHash, now);
+        TransactionUtil.afterCommit(() -> {
+            if (accepting) {
+                executor.execute(this::poll);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int released = aiJobRepository.releaseExpiredLeases(LocalDateTime.now());
+        if (released > 0) {
+            log.info("🤖 Re-queued {} AI jobs left running by a previous instance", released);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.jobs.poll-interval-ms:5000}")
+    public void scheduledPoll() {
+        aiJobRepository.releaseExpiredLeases(LocalDateTime.now());
+        poll();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                // Interrupted jobs stay RUNNING and are re-queued when their lease expires
+                log.warn("⚠️ AI jobs still running after {}, interrupting", drainTimeout);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        if (!accepting || permits.availablePermits() == 0) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Long id : aiJobRepository.findDueIds(now, PageRequest.of(0, permits.availablePermits()))) {
+                if (!accepting || !permits.tryAcquire()) {
+                    return;
+                }
+                if (aiJobRepository.claim(id, now, now.plus(lease)) == 0) {
+                    // Taken by another worker / instance
+                    permits.release();
+                    continue;
+                }
+                try {
+                    executor.execute(() -> {
+                        try {
+                            run(id);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Executor shut down between claim and submit, the lease brings the job back
+                    permits.release();
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to poll AI jobs", e);
+        }
+    }
+
+    private void run(Long id) {
+        AiJob job = aiJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        AiJobHandler handler = handlers().get(job.getType());
+        long start = System.nanoTime();
+        try {
+            boolean done = handler.handle(job);
+            job.setStatus(done ? AiJob.Status.DONE : AiJob.Status.SUPERSEDED);
+            job.setLastError(null);
+            meterRegistry.counter("ai.jobs.completed", "type", job.getType().name(),
+                    "status", job.getStatus().name()).increment();
+        } catch (Exception e) {
+            log.warn("⚠️ AI job {} ({}) failed, attempt {}/{}: {}",
+                    id, job.getType(), job.getAttempts(), maxAttempts, e.getMessage());
+            job.setLastError(truncate(String.valueOf(e.getMessage())));
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(AiJob.Status.FAILED);
+                meterRegistry.counter("ai.jobs.completed", "type", job.getType().name(), "status", "FAILED")
+                        .increment();
+            } else {
+                job.setStatus(AiJob.Status.PENDING);
+                job.setNextAttemptAt(LocalDateTime.now().plus(backoff(job.getAttempts())));
+            }
+        } finally {
+            meterRegistry.timer("ai.jobs.duration", "type", job.getType().name())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        job.setLockedUntil(null);
+        aiJobRepository.save(job);
+    }
+
+    private Map<AiJob.Type, AiJobHandler> handlers() {
+        if (handlers == null) {
+            Map<AiJob.Type, AiJobHandler> byType = new EnumMap<>(AiJob.Type.class);
+            handlerProvider.orderedStream().forEach(handler -> byType.put(handler.type(), handler));
+            handlers = byType;
+        }
+        return handlers;
+    }
+
+    // base * 2^(attempt - 1), capped, with up to 20% jitter so retries of a burst spread out
+    private Duration backoff(int attempt) {
+        long millis = baseBackoff.toMillis() << Math.min(attempt - 1, 20);
+        millis = Math.min(millis, maxBackoff.toMillis());
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(millis / 5 + 1));
+    }
+
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.UserPlan;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token / latency metering of model calls and per-plan daily token quotas.
+ * <p>
+ * Each call adds to LongAdders keyed by (user, day); deltas are flushed to
+ * ai_usage_daily in one JDBC batch upsert every ai.usage.flush-interval-ms.
+ * After a flush, today's totals of all users (every instance's usage) are
+ * reloaded in one query, so {@link #checkQuota} only reads memory: those
+ * totals plus what this instance has not flushed yet. Limits come from
+ * ai.quota.&lt;plan&gt;.daily-tokens, -1 meaning unlimited. Usage from other
+ * instances shows up one flush late, which quotas tolerate.
+ */
+@Slf4j
+@Component
+public class AiUsageMeter {
+    private static final String FLUSH_SQL = "INSERT INTO ai_usage_daily "
+            + "(user_id, usage_date, calls, prompt_tokens, completion_tokens, latency_ms) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE calls = calls + VALUES(calls), "
+            + "prompt_tokens = prompt_tokens + VALUES(prompt_tokens), "
+            + "completion_tokens = completion_tokens + VALUES(completion_tokens), "
+            + "latency_ms = latency_ms + VALUES(latency_ms)";
+
+    private static final String TOTALS_SQL =
+            "SELECT user_id, prompt_tokens + completion_tokens FROM ai_usage_daily WHERE usage_date = ?";
+
+    // Plans are declared from the smallest up
+    private static final UserPlan LOWEST_PLAN = UserPlan.values()[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<UserPlan, Long> dailyTokenLimits = new EnumMap<>(UserPlan.class);
+
+    private final Map<UserDay, Counters> pending = new ConcurrentHashMap<>();
+    // Deltas taken out of the adders but not yet committed, still counted by quotas
+    private volatile Map<UserDay, long[]> inFlight = Collections.emptyMap();
+    private volatile StoredTotals stored = new StoredTotals(LocalDate.MIN, Map.of());
+
+    /**
+     * Tokens and latency of one model call.
+     */
+    public record CallUsage(long promptTokens, long completionTokens, long latencyMillis) {
+    }
+
+    private record UserDay(Long userId, LocalDate day) {
+    }
+
+    private record StoredTotals(LocalDate day, Map<Long, Long> tokensByUser) {
+    }
+
+    private static class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder promptTokens = new LongAdder();
+        final LongAdder completionTokens = new LongAdder();
+        final LongAdder latencyMillis = new LongAdder();
+    }
+
+    public AiUsageMeter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        for (UserPlan plan : UserPlan.values()) {
+            long fallback = plan == UserPlan.GOLD ? 500_000 : 50_000;
+            dailyTokenLimits.put(plan, environment.getProperty(
+                    "ai.quota." + plan.name().toLowerCase(Locale.ROOT) + ".daily-tokens", Long.class, fallback));
+        }
+    }
+
+    /**
+     * Throws AI_QUOTA_EXCEEDED when the user used up today's tokens of the plan.
+     * Anonymous callers are not metered per user.
+     */
+    public void checkQuota(Long userId, UserPlan plan) {
+        if (userId == null) {
+            return;
+        }
+        // No plan claim: the most restrictive quota, never the most generous one
+        long limit = dailyTokenLimits.get(plan != null ? plan : LOWEST_PLAN);
+        if (limit < 0 || usedToday(userId) < limit) {
+            return;
+        }
+        meterRegistry.counter("ai.quota.rejected", "plan", String.valueOf(plan != null ? plan : LOWEST_PLAN))
+                .increment();
+        Duration untilMidnight = Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay());
+        throw new AppException(ErrorCode.AI_QUOTA_EXCEEDED, untilMidnight);
+    }
+
+    /**
+     * Record a finished call; userId null (background / anonymous) only feeds the metrics.
+     */
+    public void record(Long userId, String source, CallUsage usage) {
+        meterRegistry.counter("ai.usage.tokens", "source", source, "kind", "prompt").increment(usage.promptTokens());
+        meterRegistry.counter("ai.usage.tokens", "source", source, "kind", "completion")
+                .increment(usage.completionTokens());
+        meterRegistry.timer("ai.usage.latency", "source", source).record(usage.latencyMillis(), TimeUnit.MILLISECONDS);
+        if (userId == null) {
+            return;
+        }
+        Counters counters = pending.computeIfAbsent(new UserDay(userId, LocalDate.now()), key -> new Counters());
+        counters.calls.increment();
+        counters.promptTokens.add(usage.promptTokens());
+        counters.completionTokens.add(usage.completionTokens());
+        counters.latencyMillis.add(usage.latencyMillis());
+    }
+
+    public long usedToday(Long userId) {
+        LocalDate today = LocalDate.now();
+        UserDay key = new UserDay(userId, today);
+        StoredTotals totals = stored;
+        long used = totals.day().equals(today) ? totals.tokensByUser().getOrDefault(userId, 0L) : 0L;
+        Counters counters = pending.get(key);
+        if (counters != null) {
+            used += counters.promptTokens.sum() + counters.completionTokens.sum();
+        }
+        long[] flushing = inFlight.get(key);
+        if (flushing != null) {
+            used += flushing[1] + flushing[2];
+        }
+        return used;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.usage.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<UserDay, long[]> batch = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        pending.forEach((key, counters) -> {
+            // sumThenReset swaps every cell to zero atomically, concurrent adds land in the next flush
+            long[] delta = {
+                    counters.calls.sumThenReset(),
+                    counters.promptTokens.sumThenReset(),
+                    counters.completionTokens.sumThenReset(),
+                    counters.latencyMillis.sumThenReset() };
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0 || delta[3] != 0) {
+                batch.put(key, delta);
+            } else if (key.day().isBefore(today)) {
+                // Nothing records into past days any more
+                pending.remove(key, counters);
+            }
+        });
+
+        if (!batch.isEmpty()) {
+            inFlight = batch;
+            try {
+                List<Object[]> args = new ArrayList<>(batch.size());
+                batch.forEach((key, delta) -> args.add(new Object[] {
+                        key.userId(), Date.valueOf(key.day()), delta[0], delta[1], delta[2], delta[3] }));
+                jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+                log.debug("Flushed AI usage of {} users", batch.size());
+            } catch (Exception e) {
+                log.error("❌ Failed to flush AI usage, keeping deltas for the next run: {}", e.getMessage());
+                batch.forEach((key, delta) -> {
+                    Counters counters = pending.computeIfAbsent(key, k -> new Counters());
+                    counters.calls.add(delta[0]);
+                    counters.promptTokens.add(delta[1]);
+                    counters.completionTokens.add(delta[2]);
+                    counters.latencyMillis.add(delta[3]);
+                });
+                inFlight = Collections.emptyMap();
+                return;
+            }
+        }
+        // Reload before dropping inFlight: briefly counting a delta twice is safer than not at all
+        reloadTotals();
+        inFlight = Collections.emptyMap();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadTotals() {
+        LocalDate today = LocalDate.now();
+        try {
+            Map<Long, Long> totals = new HashMap<>();
+            jdbcTemplate.query(TOTALS_SQL, rs -> {
+                totals.put(rs.getLong(1), rs.getLong(2));
+            }, Date.valueOf(today));
+            stored = new StoredTotals(today, totals);
+        } catch (Exception e) {
+            log.error("❌ Failed to load today's AI usage: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
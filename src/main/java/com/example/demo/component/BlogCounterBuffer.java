@@ -0,0 +1,194 @@
+package com.example.demo.component;
+
+import com.example.demo.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind buffer for the denormalized blogs.like_count / comment_count columns.
+ * Likes and comments bump a LongAdder per blog id; deltas are flushed in one
+ * JDBC batch on a fixed interval, and a nightly job on one instance recomputes
+ * exact counts.
+ * Flush listeners learn which blogs' columns just changed, e.g. to drop
+ * cached copies of the old values.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlogCounterBuffer {
+    private static final String FLUSH_SQL =
+            "UPDATE blogs SET like_count = like_count + ?, comment_count = comment_count + ? WHERE id = ?";
+
+    private static final String RECONCILE_SQL = "UPDATE blogs b SET "
+            + "b.like_count = (SELECT COUNT(*) FROM blog_interactions i "
+            + "WHERE i.blog_id = b.id AND i.interaction_type = 'LIKE'), "
+            + "b.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.blog_id = b.id)";
+    private static final String RECONCILE_LOCK = "blog_counters_reconcile";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LongAdder> likeDeltas = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> commentDeltas = new ConcurrentHashMap<>();
+
+    // Deltas taken out of the adders but not yet committed, still visible to readers
+    private volatile Map<Long, long[]> inFlight = Collections.emptyMap();
+
+    private final List<Consumer<Collection<Long>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    public void addLikesAfterCommit(Long blogId, long delta) {
+        if (delta != 0) {
+            TransactionUtil.afterCommit(() -> likeDeltas.computeIfAbsent(blogId, id -> new LongAdder()).add(delta));
+        }
+    }
+
+    public void addCommentsAfterCommit(Long blogId, long delta) {
+        if (delta != 0) {
+            TransactionUtil.afterCommit(() -> commentDeltas.computeIfAbsent(blogId, id -> new LongAdder()).add(delta));
+        }
+    }
+
+    /**
+     * Likes recorded for the blog that are not in blogs.like_count yet.
+     */
+    public long pendingLikes(Long blogId) {
+        long[] flushing = inFlight.get(blogId);
+        return sum(likeDeltas.get(blogId)) + (flushing != null ? flushing[0] : 0);
+    }
+
+    public long pendingComments(Long blogId) {
+        long[] flushing = inFlight.get(blogId);
+        return sum(commentDeltas.get(blogId)) + (flushing != null ? flushing[1] : 0);
+    }
+
+    public void forget(Long blogId) {
+        likeDeltas.remove(blogId);
+        commentDeltas.remove(blogId);
+    }
+
+    /**
+     * Called with the ids of every committed flush, while their deltas still count as pending.
+     */
+    public void onFlushed(Consumer<Collection<Long>> listener) {
+        flushListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, long[]> batch = new ConcurrentHashMap<>();
+        // sumThenReset swaps every cell to zero atomically, concurrent adds land in the next flush
+        likeDeltas.forEach((blogId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.computeIfAbsent(blogId, id -> new long[2])[0] = delta;
+            }
+        });
+        commentDeltas.forEach((blogId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.computeIfAbsent(blogId, id -> new long[2])[1] = delta;
+            }
+        });
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        inFlight = batch;
+        try {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            batch.forEach((blogId, delta) -> args.add(new Object[] { delta[0], delta[1], blogId }));
+            jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+            log.debug("Flushed counter deltas for {} blogs", batch.size());
+            // Before inFlight is cleared: a reader may briefly count a delta twice, never lose it
+            notifyFlushed(batch.keySet());
+        } catch (Exception e) {
+            log.error("❌ Failed to flush blog counters, keeping deltas for the next run: {}", e.getMessage());
+            batch.forEach((blogId, delta) -> {
+                likeDeltas.computeIfAbsent(blogId, id -> new LongAdder()).add(delta[0]);
+                commentDeltas.computeIfAbsent(blogId, id -> new LongAdder()).add(delta[1]);
+            });
+        } finally {
+            inFlight = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Recompute exact counts from blog_interactions / comments, nightly, to absorb
+     * any drift. Only the instance holding a MySQL named lock runs it, the others
+     * skip and keep their buffers. Deltas still buffered on other instances land
+     * on top of the recount: at most one flush interval of drift, absorbed by the
+     * next run. Not run at startup, where it would race the buffers of instances
+     * still serving during a rolling deploy (the migration did the backfill).
+     */
+    @Scheduled(cron = "${blog.counters.reconcile-cron:0 30 3 * * *}")
+    public synchronized void reconcile() {
+        // GET_LOCK belongs to the connection, so lock, recount and release share one
+        Integer updated = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!tryLock(connection)) {
+                return null;
+            }
+            try (PreparedStatement recount = connection.prepareStatement(RECONCILE_SQL)) {
+                // Pending deltas are already reflected in the source tables, drop them before recounting
+                likeDeltas.values().forEach(LongAdder::reset);
+                commentDeltas.values().forEach(LongAdder::reset);
+                return recount.executeUpdate();
+            } finally {
+                release(connection);
+            }
+        });
+
+        if (updated == null) {
+            log.info("🔢 Counter reconciliation is running on another instance, skipped");
+            return;
+        }
+        log.info("🔢 Reconciled like/comment counters for {} blogs", updated);
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            lock.setString(1, RECONCILE_LOCK);
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void release(Connection connection) throws SQLException {
+        try (PreparedStatement unlock = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            unlock.setString(1, RECONCILE_LOCK);
+            unlock.execute();
+        }
+    }
+
+    private void notifyFlushed(Collection<Long> blogIds) {
+        for (Consumer<Collection<Long>> listener : flushListeners) {
+            try {
+                listener.accept(blogIds);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Blog counter flush listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0;
+    }
+}
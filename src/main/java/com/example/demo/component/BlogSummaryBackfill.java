@@ -0,0 +1,53 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.Blog;
+import com.example.demo.repository.BlogRepository;
+import com.example.demo.util.BlogSummaryUtil;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills excerpt / reading time / cover image for blogs written before those
+ * columns existed. New and edited blogs get them in BlogService.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BlogSummaryBackfill {
+
+    BlogRepository blogRepository;
+    TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        while (true) {
+            Integer filled = transactionTemplate.execute(status -> {
+                List<Blog> blogs = blogRepository.findTop100ByExcerptIsNull();
+                // Bulk UPDATE per row so @PreUpdate does not bump updated_at on untouched posts
+                blogs.forEach(blog -> blogRepository.updateSummaryFields(blog.getId(),
+                        BlogSummaryUtil.excerpt(blog.getContent()),
+                        BlogSummaryUtil.readingTimeMinutes(blog.getContent()),
+                        BlogSummaryUtil.coverImage(blog.getImageUrls())));
+                return blogs.size();
+            });
+            if (filled == null || filled == 0) {
+                break;
+            }
+            total += filled;
+        }
+
+        if (total > 0) {
+            log.info("Backfilled summary fields for {} blogs", total);
+        }
+    }
+}
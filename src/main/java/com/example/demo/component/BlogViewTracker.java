@@ -0,0 +1,194 @@
+package com.example.demo.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Counts blog views without touching the blogs row on every request.
+ * <p>
+ * A view is deduplicated per (blog, viewer) inside two rotating windows of
+ * bounded size; a window that fills up rotates early, forgetting the oldest
+ * viewers instead of dropping views, so a burst only weakens the dedupe.
+ * Views are aggregated in a LongAdder per blog and flushed as one JDBC batch
+ * of relative UPDATEs, so a viral post costs one row update per flush interval.
+ * Flush listeners learn which blogs' view_count just changed.
+ */
+@Slf4j
+@Component
+public class BlogViewTracker {
+    private static final String FLUSH_SQL =
+            "UPDATE blogs SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxTrackedViewers;
+
+    private final Map<Long, LongAdder> viewDeltas = new ConcurrentHashMap<>();
+    // Deltas taken out of the adders but not yet committed, still visible to readers
+    private volatile Map<Long, Long> inFlight = Collections.emptyMap();
+
+    // A viewer seen in the current or previous window is a repeat view
+    private volatile Set<String> currentWindow = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> previousWindow = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger currentWindowSize = new AtomicInteger();
+    // Separate from the flush monitor: a reader must never wait on a database batch
+    private final Object windowLock = new Object();
+
+    // System.nanoTime() of the oldest view not yet flushed, 0 when nothing is pending
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    private final List<Consumer<Collection<Long>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter recordedViews;
+    private final Counter duplicateViews;
+    private final Counter earlyRotations;
+    private final Timer flushTimer;
+
+    public BlogViewTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${blog.views.max-tracked-viewers:100000}") int maxTrackedViewers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxTrackedViewers = maxTrackedViewers;
+
+        this.recordedViews = Counter.builder("blog.views.recorded").register(meterRegistry);
+        this.duplicateViews = Counter.builder("blog.views.duplicate").register(meterRegistry);
+        this.earlyRotations = Counter.builder("blog.views.window.early_rotations")
+                .description("Dedupe windows rotated before their time because they were full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("blog.views.flush").register(meterRegistry);
+        Gauge.builder("blog.views.flush.lag", this, BlogViewTracker::flushLagSeconds)
+                .description("Age of the oldest view not yet written to the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param viewerKey "user:" + id for signed-in readers, "ip:" + trusted client address otherwise
+     */
+    public void recordView(Long blogId, String viewerKey) {
+        String key = blogId + ":" + viewerKey;
+        if (previousWindow.contains(key) || currentWindow.contains(key)) {
+            duplicateViews.increment();
+            return;
+        }
+        if (currentWindowSize.get() >= maxTrackedViewers) {
+            rotateIfFull();
+        }
+        if (!currentWindow.add(key)) {
+            duplicateViews.increment();
+            return;
+        }
+        currentWindowSize.incrementAndGet();
+
+        viewDeltas.computeIfAbsent(blogId, id -> new LongAdder()).increment();
+        oldestPendingNanos.compareAndSet(0, System.nanoTime());
+        recordedViews.increment();
+    }
+
+    /**
+     * Views recorded for the blog that are not in blogs.view_count yet.
+     */
+    public long pendingViews(Long blogId) {
+        LongAdder adder = viewDeltas.get(blogId);
+        Long flushing = inFlight.get(blogId);
+        return (adder != null ? adder.sum() : 0) + (flushing != null ? flushing : 0);
+    }
+
+    @Scheduled(fixedRateString = "${blog.views.dedupe-window:PT30M}",
+            initialDelayString = "${blog.views.dedupe-window:PT30M}")
+    public void rotateWindow() {
+        synchronized (windowLock) {
+            previousWindow = currentWindow;
+            currentWindow = ConcurrentHashMap.newKeySet();
+            currentWindowSize.set(0);
+        }
+    }
+
+    // Re-checked under the lock so a burst of callers rotates once, not once each
+    private void rotateIfFull() {
+        synchronized (windowLock) {
+            if (currentWindowSize.get() >= maxTrackedViewers) {
+                rotateWindow();
+                earlyRotations.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        long pendingSince = oldestPendingNanos.getAndSet(0);
+
+        // Published before the adders are reset, so readers keep seeing the deltas until they are committed
+        Map<Long, Long> batch = new ConcurrentHashMap<>();
+        inFlight = batch;
+        viewDeltas.forEach((blogId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.put(blogId, delta);
+            }
+        });
+        if (batch.isEmpty()) {
+            inFlight = Collections.emptyMap();
+            return;
+        }
+
+        try {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            batch.forEach((blogId, delta) -> args.add(new Object[] { delta, blogId }));
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+            // Before inFlight is cleared: a reader may briefly count a view twice, never lose it
+            notifyFlushed(batch.keySet());
+        } catch (Exception e) {
+            log.error("❌ Failed to flush blog views, keeping them for the next run: {}", e.getMessage());
+            batch.forEach((blogId, delta) -> viewDeltas.computeIfAbsent(blogId, id -> new LongAdder()).add(delta));
+            oldestPendingNanos.compareAndSet(0, pendingSince);
+        } finally {
+            inFlight = Collections.emptyMap();
+        }
+    }
+
+    public void forget(Long blogId) {
+        viewDeltas.remove(blogId);
+    }
+
+    /**
+     * Called with the ids of every committed flush.
+     */
+    public void onFlushed(Consumer<Collection<Long>> listener) {
+        flushListeners.add(listener);
+    }
+
+    private void notifyFlushed(Collection<Long> blogIds) {
+        for (Consumer<Collection<Long>> listener : flushListeners) {
+            try {
+                listener.accept(blogIds);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Blog view flush listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private double flushLagSeconds() {
+        long since = oldestPendingNanos.get();
+        return since == 0 ? 0 : (System.nanoTime() - since) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
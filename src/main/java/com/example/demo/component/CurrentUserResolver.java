@@ -0,0 +1,167 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserPlan;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.PlanUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Who is calling, read from the request's JWT instead of a username lookup.
+ * <p>
+ * Tokens carry the user id and effective plan (see AuthenticationService), so
+ * id-only needs cost no query at all. {@link #getUserReference()} gives a lazy
+ * proxy for foreign keys, {@link #requireIdentity()} a short-lived cached
+ * snapshot for display fields, and {@link #requireUser()} the managed entity
+ * by primary key for services that modify the user.
+ */
+@Component
+public class CurrentUserResolver {
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String PLAN_CLAIM = "plan";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Identity> identities;
+
+    public CurrentUserResolver(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${auth.identity-cache.max-size:10000}") long maxSize,
+            @Value("${auth.identity-cache.ttl:PT1M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "auth.identity");
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class Identity {
+        Long id;
+        String username;
+        String email;
+        String fullName;
+        String avatarUrl;
+        UserPlan plan; // Effective plan
+        Set<String> roles;
+    }
+
+    /**
+     * Id of the caller, or null for anonymous requests.
+     */
+    public Long getUserId() {
+        Jwt jwt = currentJwt();
+        if (jwt == null) {
+            return null;
+        }
+        Object claim = jwt.getClaims().get(USER_ID_CLAIM);
+        if (claim instanceof Number number) {
+            return number.longValue();
+        }
+        // Tokens issued before the claim existed: resolve once by subject
+        String subject = jwt.getSubject();
+        return userRepository.findIdByUsername(subject)
+                .or(() -> userRepository.findIdByEmail(subject))
+                .orElse(null);
+    }
+
+    public Long requireUserId() {
+        if (currentJwt() == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        Long userId = getUserId();
+        if (userId == null) {
+            throw new AppException(ErrorCode.USER_NOT_EXISTED);
+        }
+        return userId;
+    }
+
+    public UserPlan getPlan() {
+        Jwt jwt = currentJwt();
+        if (jwt == null) {
+            return null;
+        }
+        String claim = jwt.getClaimAsString(PLAN_CLAIM);
+        if (claim != null) {
+            return UserPlan.valueOf(claim);
+        }
+        return requireIdentity().getPlan();
+    }
+
+    /**
+     * Role check against the token's authorities, e.g. hasRole("ADMIN").
+     */
+    public boolean hasRole(String role) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ("ROLE_" + role).equals(authority.getAuthority()));
+    }
+
+    /**
+     * Lazy proxy of the caller, enough to set a foreign key without loading the row.
+     */
+    public User getUserReference() {
+        return userRepository.getReferenceById(requireUserId());
+    }
+
+    public Identity requireIdentity() {
+        Identity identity = identities.get(requireUserId(), id -> userRepository.findWithRolesById(id)
+                .map(this::toIdentity)
+                .orElse(null));
+        if (identity == null) {
+            throw new AppException(ErrorCode.USER_NOT_EXISTED);
+        }
+        return identity;
+    }
+
+    /**
+     * Managed entity of the caller by primary key. Repeated calls within one
+     * request are served by the persistence context.
+     */
+    public User requireUser() {
+        return userRepository.findById(requireUserId())
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+    }
+
+    /**
+     * Drop the cached snapshot after the user's profile, roles or plan change.
+     */
+    public void evict(Long userId) {
+        identities.invalidate(userId);
+    }
+
+    private Identity toIdentity(User user) {
+        return new Identity(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+                user.getAvatarUrl(), PlanUtil.effectivePlan(user),
+                user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet()));
+    }
+
+    private Jwt currentJwt() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.Blog;
+import com.example.demo.repository.BlogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Precomputes the homepage featured list so /blogs/featured only reads a snapshot.
+ * <p>
+ * Explicitly featured posts come first (newest first). The rest is filled with
+ * trending posts scored by engagement decayed with age:
+ * (views + 3 * likes + 5 * comments + 1) / (ageHours + 2) ^ gravity.
+ * The snapshot holds ids only and is swapped atomically on every refresh.
+ */
+@Slf4j
+@Component
+public class FeaturedBlogRanker {
+    private static final int MIN_EXPLICIT_BEFORE_TRENDING = 3;
+
+    private final BlogRepository blogRepository;
+    private final BlogCounterBuffer blogCounterBuffer;
+    private final BlogViewTracker blogViewTracker;
+    private final int size;
+    private final double gravity;
+
+    private final AtomicReference<List<Long>> snapshot = new AtomicReference<>(List.of());
+
+    public FeaturedBlogRanker(BlogRepository blogRepository, BlogCounterBuffer blogCounterBuffer,
+            BlogViewTracker blogViewTracker,
+            @Value("${blog.featured.size:5}") int size,
+            @Value("${blog.featured.gravity:1.5}") double gravity) {
+        this.blogRepository = blogRepository;
+        this.blogCounterBuffer = blogCounterBuffer;
+        this.blogViewTracker = blogViewTracker;
+        this.size = size;
+        this.gravity = gravity;
+    }
+
+    private static class Candidate {
+        Long id;
+        LocalDateTime createdAt;
+        boolean featured;
+        double score;
+    }
+
+    /**
+     * Ranked ids of the current snapshot, at most blog.featured.size entries.
+     */
+    public List<Long> getSnapshot() {
+        return snapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${blog.featured.refresh-interval-ms:300000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Candidate> explicit = new ArrayList<>();
+        List<Candidate> others = new ArrayList<>();
+
+        // Rows of [id, createdAt, viewCount, likeCount, commentCount, isFeatured]
+        for (Object[] row : blogRepository.findRankingRowsByStatus(Blog.BlogStatus.PUBLISHED)) {
+            Candidate candidate = new Candidate();
+            candidate.id = (Long) row[0];
+            candidate.createdAt = (LocalDateTime) row[1];
+            candidate.featured = Boolean.TRUE.equals(row[5]);
+            if (candidate.featured) {
+                explicit.add(candidate);
+                continue;
+            }
+
+            long views = toLong(row[2]) + blogViewTracker.pendingViews(candidate.id);
+            long likes = toLong(row[3]) + blogCounterBuffer.pendingLikes(candidate.id);
+            long comments = toLong(row[4]) + blogCounterBuffer.pendingComments(candidate.id);
+            double ageHours = candidate.createdAt != null
+                    ? Math.max(0, Duration.between(candidate.createdAt, now).toMinutes() / 60.0)
+                    : 0;
+            candidate.score = (views + 3.0 * likes + 5.0 * comments + 1) / Math.pow(ageHours + 2, gravity);
+            others.add(candidate);
+        }
+
+        List<Long> ranked = new ArrayList<>(size);
+        explicit.stream()
+                .sorted(Comparator.comparing((Candidate c) -> c.createdAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(size)
+                .forEach(c -> ranked.add(c.id));
+
+        if (ranked.size() < MIN_EXPLICIT_BEFORE_TRENDING) {
+            others.stream()
+                    .sorted(Comparator.comparingDouble((Candidate c) -> c.score).reversed())
+                    .limit(size - ranked.size())
+                    .forEach(c -> ranked.add(c.id));
+        }
+
+        snapshot.set(List.copyOf(ranked));
+        log.debug("Featured blog snapshot refreshed: {}", ranked);
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+}
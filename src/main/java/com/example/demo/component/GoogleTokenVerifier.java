@@ -0,0 +1,105 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * One shared verifier for Google ID tokens, so Google's signing certificates
+ * are fetched once and reused instead of on every sign-in.
+ * <p>
+ * Keys live in a {@link GooglePublicKeysManager} until the expiry Google sends
+ * in Cache-Control; a background check reloads them refresh-ahead before that,
+ * so no login blocks on the certificate download. The cert endpoint is
+ * google.certs-url, which can point at a local stand-in serving the same
+ * JSON (kid -> PEM certificate) to run without network access.
+ */
+@Slf4j
+@Component
+public class GoogleTokenVerifier {
+    private final GooglePublicKeysManager publicKeysManager;
+    private final GoogleIdTokenVerifier verifier;
+    private final Duration refreshAhead;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter refreshFailures;
+
+    public GoogleTokenVerifier(MeterRegistry meterRegistry,
+            @Value("${google.client-id}") String clientId,
+            @Value("${google.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+            @Value("${google.keys.refresh-ahead:PT10M}") Duration refreshAhead) {
+        this.publicKeysManager = new GooglePublicKeysManager.Builder(
+                new NetHttpTransport(), GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+        this.verifier = new GoogleIdTokenVerifier.Builder(publicKeysManager)
+                .setAudience(Collections.singletonList(clientId))
+                .build();
+        this.refreshAhead = refreshAhead;
+
+        this.meterRegistry = meterRegistry;
+        this.refreshFailures = meterRegistry.counter("auth.google.keys.refresh.failures");
+    }
+
+    /**
+     * Payload of a valid ID token for our client id, INVALID_CREDENTIALS otherwise.
+     */
+    public GoogleIdToken.Payload verify(String idToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            GoogleIdToken token = verifier.verify(idToken);
+            outcome = token != null ? "valid" : "invalid";
+            if (token == null) {
+                throw new AppException(ErrorCode.INVALID_CREDENTIALS);
+            }
+            return token.getPayload();
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            log.error("❌ [Google Login] Error verifying token: {}", e.getMessage());
+            throw new AppException(ErrorCode.INVALID_CREDENTIALS);
+        } finally {
+            sample.stop(meterRegistry.timer("auth.google.verify", "outcome", outcome));
+        }
+    }
+
+    /**
+     * Reload the certificates when they are about to expire. Also warms the
+     * cache at startup so the first sign-in does not pay for the download.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${google.keys.check-interval-ms:60000}")
+    public void refreshIfExpiring() {
+        long expiresAt = publicKeysManager.getExpirationTimeMilliseconds();
+        if (expiresAt - System.currentTimeMillis() > refreshAhead.toMillis()) {
+            return;
+        }
+        try {
+            publicKeysManager.refresh();
+            log.debug("Google signing keys refreshed, {} keys, valid for {} s",
+                    publicKeysManager.getPublicKeys().size(),
+                    (publicKeysManager.getExpirationTimeMilliseconds() - System.currentTimeMillis()) / 1000);
+        } catch (GeneralSecurityException | IOException e) {
+            // Still-valid keys stay in use; verify() reloads on its own once they expire
+            refreshFailures.increment();
+            log.warn("⚠️ Could not refresh Google signing keys: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive cap on model calls in flight, shared by every caller of LlmGateway.
+ * <p>
+ * AIMD: each successful call while the limit is in use adds 1/limit (about +1
+ * per round of calls); a call the provider rejected as overloaded (429 or
+ * timeout) multiplies it by ai.llm.limiter.decrease-factor. Only calls started
+ * after the last decrease can trigger another one, so one burst of 429s halves
+ * the limit once instead of collapsing it to the minimum.
+ * <p>
+ * Two lanes: INTERACTIVE (chat, answers a user waits for) is always served
+ * first, BACKGROUND (journal replies, summaries, prompt pool) only gets
+ * background-share of the limit and never overtakes a waiting interactive call.
+ * Callers wait up to their lane's queue timeout, then get AI_UNAVAILABLE.
+ */
+@Slf4j
+@Component
+public class LlmConcurrencyLimiter {
+    public enum Lane {
+        INTERACTIVE, BACKGROUND
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition interactiveTurn = lock.newCondition();
+    private final Condition backgroundTurn = lock.newCondition();
+
+    private final MeterRegistry meterRegistry;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double decreaseFactor;
+    private final double backgroundShare;
+    private final Duration interactiveQueueTimeout;
+    private final Duration backgroundQueueTimeout;
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int interactiveWaiting;
+    private int backgroundWaiting;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    public LlmConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${ai.llm.limiter.initial-limit:8}") int initialLimit,
+            @Value("${ai.llm.limiter.min-limit:1}") int minLimit,
+            @Value("${ai.llm.limiter.max-limit:64}") int maxLimit,
+            @Value("${ai.llm.limiter.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${ai.llm.limiter.background-share:0.75}") double backgroundShare,
+            @Value("${ai.llm.limiter.interactive-queue-timeout:PT5S}") Duration interactiveQueueTimeout,
+            @Value("${ai.llm.limiter.background-queue-timeout:PT60S}") Duration backgroundQueueTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.decreaseFactor = decreaseFactor;
+        this.backgroundShare = backgroundShare;
+        this.interactiveQueueTimeout = interactiveQueueTimeout;
+        this.backgroundQueueTimeout = backgroundQueueTimeout;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        meterRegistry.gauge("ai.llm.limit", this, LlmConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("ai.llm.inflight", this, LlmConcurrencyLimiter::getInFlight);
+        meterRegistry.gauge("ai.llm.queue.waiting", this, LlmConcurrencyLimiter::getWaiting);
+    }
+
+    /**
+     * Wait for a slot in the lane, up to its queue timeout.
+     */
+    public Permit acquire(Lane lane) {
+        long start = System.nanoTime();
+        Duration timeout = lane == Lane.INTERACTIVE ? interactiveQueueTimeout : backgroundQueueTimeout;
+        long remaining = timeout.toNanos();
+        Condition turn = lane == Lane.INTERACTIVE ? interactiveTurn : backgroundTurn;
+        lock.lock();
+        try {
+            addWaiting(lane, 1);
+            try {
+                while (!canEnter(lane)) {
+                    if (remaining <= 0) {
+                        meterRegistry.counter("ai.llm.limiter.timeouts", "lane", lane.name()).increment();
+                        throw new AppException(ErrorCode.AI_UNAVAILABLE, Duration.ofSeconds(1));
+                    }
+                    remaining = turn.awaitNanos(remaining);
+                }
+            } finally {
+                addWaiting(lane, -1);
+                if (lane == Lane.INTERACTIVE && interactiveWaiting == 0 && backgroundWaiting > 0) {
+                    // Background waiters were held back by us, not by the limit: let them re-check
+                    backgroundTurn.signalAll();
+                }
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.AI_UNAVAILABLE);
+        } finally {
+            lock.unlock();
+        }
+        meterRegistry.timer("ai.llm.queue.wait", "lane", lane.name())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit(System.nanoTime());
+    }
+
+    /**
+     * A slot if one is free right now, otherwise null. For optional work such as hedges.
+     */
+    public Permit tryAcquire(Lane lane) {
+        lock.lock();
+        try {
+            if (!canEnter(lane)) {
+                return null;
+            }
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return interactiveWaiting + backgroundWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canEnter(Lane lane) {
+        if (lane == Lane.INTERACTIVE) {
+            return inFlight < (int) limit;
+        }
+        return interactiveWaiting == 0 && inFlight < Math.max(1, (int) (limit * backgroundShare));
+    }
+
+    private void addWaiting(Lane lane, int delta) {
+        if (lane == Lane.INTERACTIVE) {
+            interactiveWaiting += delta;
+        } else {
+            backgroundWaiting += delta;
+        }
+    }
+
+    private void release(long startNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            boolean grown = false;
+            if (outcome == Outcome.SUCCESS && inFlight * 2 >= limit) {
+                // Only grow while the limit is actually what holds calls back
+                double previous = limit;
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                grown = limit > previous;
+            } else if (outcome == Outcome.DROPPED && startNanos - lastDecreaseNanos > 0) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * decreaseFactor);
+                lastDecreaseNanos = System.nanoTime();
+                meterRegistry.counter("ai.llm.limiter.decreases").increment();
+                log.warn("⚠️ LLM provider overloaded, concurrency limit {} -> {}",
+                        String.format("%.1f", previous), String.format("%.1f", limit));
+            }
+            inFlight--;
+            // Interactive first; a background waiter only when nobody interactive waits.
+            // A grown limit may have room for both lanes, canEnter sorts out who gets in
+            if (interactiveWaiting > 0) {
+                interactiveTurn.signalAll();
+            }
+            if (backgroundWaiting > 0 && (grown || interactiveWaiting == 0)) {
+                backgroundTurn.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    /**
+     * One slot; report how the call ended exactly once, later calls are no-ops.
+     */
+    public class Permit {
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void success() {
+            release(Outcome.SUCCESS);
+        }
+
+        // Provider signalled overload (429, timeout)
+        public void dropped() {
+            release(Outcome.DROPPED);
+        }
+
+        // Ended without saying anything about provider load
+        public void ignore() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                LlmConcurrencyLimiter.this.release(startNanos, outcome);
+            }
+        }
+    }
+}
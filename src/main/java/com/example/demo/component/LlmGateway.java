@@ -0,0 +1,340 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.util.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Single way out to the model provider. Every call goes through one circuit
+ * breaker, so a provider outage turns into fast AI_UNAVAILABLE errors instead
+ * of requests piling up on read timeouts, and through {@link LlmConcurrencyLimiter},
+ * which backs off when the provider answers 429 or times out and serves
+ * interactive calls first. A 429 leaves the breaker alone (the provider is up),
+ * a timeout counts for both: a hung provider must still open the circuit.
+ * <p>
+ * {@link #callIdempotent} is for prompts without side effects (background
+ * jobs, cached answers): if the first attempt is slower than ai.llm.hedge.delay
+ * or fails, another one is started, up to ai.llm.hedge.max-attempts, and the
+ * first answer wins. Hedges only use spare limiter slots and overload errors
+ * are not retried here. Interactive chat uses {@link #call} / {@link #stream}
+ * with a single attempt, a duplicate there would cost a full completion.
+ * The HTTP client itself (pooling, timeouts) is set up in LlmHttpClientConfig.
+ */
+@Slf4j
+@Component
+public class LlmGateway {
+    private final CircuitBreaker circuitBreaker;
+    private final LlmConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Duration hedgeDelay;
+    private final int maxAttempts;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LlmGateway(LlmConcurrencyLimiter limiter, MeterRegistry meterRegistry,
+            @Value("${ai.llm.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${ai.llm.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+            @Value("${ai.llm.hedge.delay:PT8S}") Duration hedgeDelay,
+            @Value("${ai.llm.hedge.max-attempts:2}") int maxAttempts) {
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+        this.hedgeDelay = hedgeDelay;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        meterRegistry.gauge("ai.llm.circuit.open", circuitBreaker,
+                cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    /**
+     * One attempt, guarded by the circuit breaker and the limiter.
+     */
+    public <T> T call(LlmConcurrencyLimiter.Lane lane, Supplier<T> request) {
+        return attempt(acquire(lane), request, () -> false);
+    }
+
+    /**
+     * Hedged call for prompts that are safe to send more than once. Gives up
+     * with a TransientAiException when no attempt answered within timeout
+     * (counted from the first attempt, queueing for it excluded); attempts
+     * still running then count as provider timeouts.
+     */
+    public <T> T callIdempotent(LlmConcurrencyLimiter.Lane lane, Duration timeout, Supplier<T> request) {
+        BlockingQueue<Attempt<T>> outcomes = new LinkedBlockingQueue<>();
+        List<Launched> inFlight = new ArrayList<>();
+        AtomicBoolean deadlineExceeded = new AtomicBoolean(false);
+        int launched = 0;
+        int failed = 0;
+        RuntimeException lastError = null;
+        try {
+            launch(acquire(lane), request, deadlineExceeded, outcomes, inFlight);
+            launched++;
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    // Cancelling below reports the attempts still running as timeouts
+                    deadlineExceeded.set(true);
+                    throw new TransientAiException("No answer from the model within " + timeout);
+                }
+                Attempt<T> outcome = outcomes.poll(Math.min(hedgeDelay.toNanos(), remaining), TimeUnit.NANOSECONDS);
+                if (outcome == null) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        continue;
+                    }
+                    // Slow: hedge if there is room, the earlier attempt keeps running
+                    Slot slot = launched < maxAttempts ? tryAcquire(lane) : null;
+                    if (slot != null) {
+                        launch(slot, request, deadlineExceeded, outcomes, inFlight);
+                        launched++;
+                        meterRegistry.counter("ai.llm.hedges", "reason", "slow").increment();
+                    }
+                    continue;
+                }
+                if (outcome.error() == null) {
+                    return outcome.value();
+                }
+                failed++;
+                lastError = outcome.error();
+                if (lastError instanceof NonTransientAiException || lastError instanceof AppException
+                        || isOverload(lastError)) {
+                    // Bad request, circuit open or provider overloaded: another attempt would not do better
+                    throw lastError;
+                }
+                if (failed == launched) {
+                    if (launched >= maxAttempts) {
+                        throw lastError;
+                    }
+                    launch(acquire(lane), request, deadlineExceeded, outcomes, inFlight);
+                    launched++;
+                    meterRegistry.counter("ai.llm.hedges", "reason", "error").increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.AI_UNAVAILABLE);
+        } finally {
+            // Losers are cancelled, their HTTP exchange is aborted on interrupt
+            for (Launched running : inFlight) {
+                running.future().cancel(true);
+                if (running.started().compareAndSet(false, true)) {
+                    // Cancelled before it ran: never reached the provider
+                    onIgnored(running.slot());
+                }
+            }
+        }
+    }
+
+    /**
+     * Streamed completion in the interactive lane. A stream the client
+     * cancelled counts as success once it produced something.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            Slot slot = acquire(LlmConcurrencyLimiter.Lane.INTERACTIVE);
+            Flux<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                // Failed before subscribing: nothing below would release the slot
+                onFailure(slot, e);
+                return Flux.error(e);
+            }
+            AtomicBoolean received = new AtomicBoolean(false);
+            return response
+                    .doOnNext(item -> received.set(true))
+                    .doOnError(error -> onFailure(slot, error))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.ON_COMPLETE || (signal == SignalType.CANCEL && received.get())) {
+                            onSuccess(slot);
+                        } else if (signal == SignalType.CANCEL) {
+                            onIgnored(slot);
+                        }
+                    });
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void launch(Slot slot, Supplier<T> request, AtomicBoolean deadlineExceeded,
+            BlockingQueue<Attempt<T>> outcomes, List<Launched> inFlight) {
+        AtomicBoolean started = new AtomicBoolean(false);
+        try {
+            Future<?> future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    // Cancelled while starting, the caller already released the slot
+                    return;
+                }
+                try {
+                    outcomes.add(new Attempt<>(attempt(slot, request, deadlineExceeded::get), null));
+                } catch (RuntimeException e) {
+                    outcomes.add(new Attempt<>(null, e));
+                }
+            });
+            inFlight.add(new Launched(future, slot, started));
+        } catch (RuntimeException e) {
+            onIgnored(slot);
+            throw e;
+        }
+    }
+
+    private <T> T attempt(Slot slot, Supplier<T> request, BooleanSupplier deadlineExceeded) {
+        try {
+            T result = request.get();
+            onSuccess(slot);
+            return result;
+        } catch (RuntimeException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                onFailure(slot, e);
+            } else if (deadlineExceeded.getAsBoolean()) {
+                // Cut off by the caller's deadline: the provider did not answer in time
+                onTimeout(slot, e);
+            } else {
+                // Lost a hedge race and was cancelled, says nothing about the provider
+                onIgnored(slot);
+            }
+            throw e;
+        }
+    }
+
+    // Circuit first: while it is open nobody should queue for a slot
+    private Slot acquire(LlmConcurrencyLimiter.Lane lane) {
+        CircuitBreaker.Ticket ticket = circuitBreaker.tryAcquire(System.nanoTime());
+        if (!ticket.allowed()) {
+            meterRegistry.counter("ai.llm.calls", "outcome", "rejected").increment();
+            throw new AppException(ErrorCode.AI_UNAVAILABLE, Duration.ofNanos(ticket.waitNanos()));
+        }
+        try {
+            return new Slot(ticket, limiter.acquire(lane));
+        } catch (RuntimeException e) {
+            circuitBreaker.onIgnored(ticket);
+            throw e;
+        }
+    }
+
+    private Slot tryAcquire(LlmConcurrencyLimiter.Lane lane) {
+        CircuitBreaker.Ticket ticket = circuitBreaker.tryAcquire(System.nanoTime());
+        if (!ticket.allowed()) {
+            return null;
+        }
+        LlmConcurrencyLimiter.Permit permit = limiter.tryAcquire(lane);
+        if (permit == null) {
+            circuitBreaker.onIgnored(ticket);
+            return null;
+        }
+        return new Slot(ticket, permit);
+    }
+
+    private void onSuccess(Slot slot) {
+        slot.permit().success();
+        circuitBreaker.onSuccess(slot.ticket());
+        meterRegistry.counter("ai.llm.calls", "outcome", "success").increment();
+    }
+
+    private void onIgnored(Slot slot) {
+        circuitBreaker.onIgnored(slot.ticket());
+        slot.permit().ignore();
+    }
+
+    private void onFailure(Slot slot, Throwable error) {
+        if (isRateLimited(error)) {
+            // The provider is up but wants less traffic: the limiter's job, not the breaker's
+            slot.permit().dropped();
+            circuitBreaker.onIgnored(slot.ticket());
+            meterRegistry.counter("ai.llm.calls", "outcome", "overloaded").increment();
+            return;
+        }
+        if (isTimeout(error)) {
+            onTimeout(slot, error);
+            return;
+        }
+        slot.permit().ignore();
+        if (error instanceof NonTransientAiException) {
+            // 4xx: our request was wrong, the provider is fine
+            circuitBreaker.onIgnored(slot.ticket());
+            meterRegistry.counter("ai.llm.calls", "outcome", "client_error").increment();
+            return;
+        }
+        recordBreakerFailure(slot, error, "failure");
+    }
+
+    // Could be load or a hung provider: back off, and let enough of them open the breaker
+    private void onTimeout(Slot slot, Throwable error) {
+        slot.permit().dropped();
+        recordBreakerFailure(slot, error, "timeout");
+    }
+
+    private void recordBreakerFailure(Slot slot, Throwable error, String outcome) {
+        boolean wasOpen = circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+        circuitBreaker.onFailure(slot.ticket(), System.nanoTime());
+        meterRegistry.counter("ai.llm.calls", "outcome", outcome).increment();
+        if (!wasOpen && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            log.warn("⚠️ LLM circuit opened after failure: {}", error.getMessage());
+        }
+    }
+
+    // Either way the provider is struggling, another attempt right away would not help
+    private static boolean isOverload(Throwable error) {
+        return isRateLimited(error) || isTimeout(error);
+    }
+
+    /**
+     * 429: Spring AI reports 4xx as NonTransientAiException with the status first in the message.
+     */
+    private static boolean isRateLimited(Throwable error) {
+        return error instanceof NonTransientAiException && error.getMessage() != null
+                && error.getMessage().startsWith("429");
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    // One admitted call: its circuit breaker ticket and limiter slot, released together
+    private record Slot(CircuitBreaker.Ticket ticket, LlmConcurrencyLimiter.Permit permit) {
+    }
+
+    // A submitted attempt; whoever flips started first (the task or the cleanup) releases the slot
+    private record Launched(Future<?> future, Slot slot, AtomicBoolean started) {
+    }
+
+    private record Attempt<T>(T value, RuntimeException error) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model profile (model, max tokens, temperature, timeout) of each AI use case,
+ * from ai.llm.routes.&lt;route&gt;.*. A route without a model uses the primary
+ * one (spring.ai.openai.chat.options.model); short templated outputs can be
+ * sent to a smaller, faster model, with a retry on the primary model when
+ * that fails (see AiChatService#generate). The timeout bounds those generate
+ * calls; chat is bounded by the HTTP read timeout / stream timeout instead.
+ */
+@Slf4j
+@Component
+public class LlmRoutes {
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private final String primaryModel;
+    private final Map<Route, ModelProfile> profiles = new EnumMap<>(Route.class);
+
+    @Getter
+    public enum Route {
+        CHAT("chat", 1000, 0.7f, Duration.ofSeconds(60)),
+        JOURNAL_HEALING("journal-healing", 300, 0.8f, Duration.ofSeconds(20)),
+        DAILY_PROMPT("daily-prompt", 100, 1.0f, Duration.ofSeconds(15)),
+        JOURNAL_STATS("journal-stats", 400, 0.5f, Duration.ofSeconds(20)),
+        CHAT_SUMMARY("chat-summary", 400, 0.3f, Duration.ofSeconds(30));
+
+        private final String key;
+        private final int defaultMaxTokens;
+        private final float defaultTemperature;
+        private final Duration defaultTimeout;
+
+        Route(String key, int defaultMaxTokens, float defaultTemperature, Duration defaultTimeout) {
+            this.key = key;
+            this.defaultMaxTokens = defaultMaxTokens;
+            this.defaultTemperature = defaultTemperature;
+            this.defaultTimeout = defaultTimeout;
+        }
+    }
+
+    public record ModelProfile(String model, int maxTokens, float temperature, Duration timeout) {
+        public ModelProfile withModel(String otherModel) {
+            return new ModelProfile(otherModel, maxTokens, temperature, timeout);
+        }
+
+        public OpenAiChatOptions toOptions() {
+            return OpenAiChatOptions.builder()
+                    .withModel(model)
+                    .withMaxTokens(maxTokens)
+                    .withTemperature(temperature)
+                    .build();
+        }
+    }
+
+    public LlmRoutes(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.primaryModel = environment.getProperty("spring.ai.openai.chat.options.model", "gpt-4o");
+        for (Route route : Route.values()) {
+            String prefix = "ai.llm.routes." + route.getKey();
+            if (!environment.containsProperty(prefix + ".model")
+                    && !environment.containsProperty(prefix + ".max-tokens")) {
+                // Typically a mis-indented yaml block: say so instead of quietly running everything on the primary model
+                log.warn("⚠️ No {} configured, route {} uses the primary model {} with built-in defaults",
+                        prefix, route.getKey(), primaryModel);
+            }
+            profiles.put(route, new ModelProfile(
+                    environment.getProperty(prefix + ".model", primaryModel),
+                    environment.getProperty(prefix + ".max-tokens", Integer.class, route.getDefaultMaxTokens()),
+                    environment.getProperty(prefix + ".temperature", Float.class, route.getDefaultTemperature()),
+                    environment.getProperty(prefix + ".timeout", Duration.class, route.getDefaultTimeout())));
+        }
+        log.info("🤖 LLM routes: {}", profiles);
+    }
+
+    public ModelProfile profile(Route route) {
+        return profiles.get(route);
+    }
+
+    /**
+     * Latency / outcome per route and model actually used.
+     */
+    public void record(Route route, String model, String outcome, long startNanos) {
+        meterRegistry.timer("ai.llm.route", "route", route.getKey(), "model", model, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFallback(Route route, String model) {
+        meterRegistry.counter("ai.llm.route.fallbacks", "route", route.getKey(), "model", model).increment();
+    }
+}
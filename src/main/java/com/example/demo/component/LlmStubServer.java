@@ -0,0 +1,187 @@
+package com.example.demo.component;
+
+import com.example.demo.util.TokenEstimator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OpenAI-compatible chat completions server for offline runs (CI, load tests),
+ * started with the llm-stub profile which also points spring.ai.openai.base-url
+ * at it.
+ * <p>
+ * Answers POST /v1/chat/completions, blocking or streamed (stream=true, SSE
+ * chunks then [DONE]), after ai.llm.stub.latency plus up to latency-jitter.
+ * Streamed words are spaced by token-delay. A share error-rate of the requests
+ * fails with error-status, to exercise retries and the circuit breaker.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ai.llm.stub.enabled", havingValue = "true")
+public class LlmStubServer {
+    private static final String PATH = "/v1/chat/completions";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int port;
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final Duration tokenDelay;
+    private final double errorRate;
+    private final int errorStatus;
+
+    private HttpServer server;
+
+    public LlmStubServer(@Value("${ai.llm.stub.port:8089}") int port,
+            @Value("${ai.llm.stub.latency:PT0.2S}") Duration latency,
+            @Value("${ai.llm.stub.latency-jitter:PT0.1S}") Duration latencyJitter,
+            @Value("${ai.llm.stub.token-delay:PT0.02S}") Duration tokenDelay,
+            @Value("${ai.llm.stub.error-rate:0}") double errorRate,
+            @Value("${ai.llm.stub.error-status:500}") int errorStatus) {
+        this.port = port;
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.tokenDelay = tokenDelay;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext(PATH, this::handle);
+        server.start();
+        log.info("🧪 LLM stub server listening on http://localhost:{}{} (latency {}, error rate {})",
+                port, PATH, latency, errorRate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            sleep(latency.plusMillis(ThreadLocalRandom.current().nextLong(latencyJitter.toMillis() + 1)));
+
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                ObjectNode error = objectMapper.createObjectNode();
+                error.putObject("error").put("message", "Injected stub error").put("type", "server_error");
+                writeJson(exchange, errorStatus, error);
+                return;
+            }
+
+            String model = request.path("model").asText("stub");
+            String prompt = lastUserMessage(request);
+            String reply = "Stub reply to: " + (prompt.length() > 60 ? prompt.substring(0, 60) : prompt);
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, reply);
+            } else {
+                writeJson(exchange, 200, completion(model, prompt, reply));
+            }
+        }
+    }
+
+    private ObjectNode completion(String model, String prompt, String reply) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-stub")
+                .put("object", "chat.completion")
+                .put("created", Instant.now().getEpochSecond())
+                .put("model", model);
+        ObjectNode choice = body.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", reply);
+        int promptTokens = TokenEstimator.estimate(prompt);
+        int completionTokens = TokenEstimator.estimate(reply);
+        body.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+        return body;
+    }
+
+    private void stream(HttpExchange exchange, String model, String reply) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String[] words = reply.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            ObjectNode delta = objectMapper.createObjectNode();
+            if (i == 0) {
+                delta.put("role", "assistant");
+            }
+            delta.put("content", i == 0 ? words[i] : " " + words[i]);
+            writeChunk(out, chunk(model, delta, null));
+            sleep(tokenDelay);
+        }
+        writeChunk(out, chunk(model, objectMapper.createObjectNode(), "stop"));
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode chunk(String model, ObjectNode delta, String finishReason) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-stub")
+                .put("object", "chat.completion.chunk")
+                .put("created", Instant.now().getEpochSecond())
+                .put("model", model);
+        ObjectNode choice = body.putArray("choices").addObject().put("index", 0);
+        choice.set("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return body;
+    }
+
+    private void writeChunk(OutputStream out, ObjectNode chunk) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void writeJson(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private String lastUserMessage(JsonNode request) {
+        String content = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                content = message.path("content").asText("");
+            }
+        }
+        return content;
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
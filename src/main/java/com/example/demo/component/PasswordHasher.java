@@ -0,0 +1,145 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of directly on Tomcat workers.
+ * <p>
+ * At most pool-size hashes run at once and queue-capacity wait; anything beyond
+ * that is rejected immediately with 429 + Retry-After, so a login burst can only
+ * tie up a bounded number of request threads and the rest of the API keeps
+ * serving. Queue depth / active threads are published as executor.* meters
+ * (name=auth.hashing), hash latency as auth.password.verify / auth.password.encode.
+ * <p>
+ * Callers hash outside their transactions, but with open-in-view the request
+ * still holds the connection of any query it ran before, so threads + queue are
+ * capped at half of the Hikari pool: waiting logins can never drain it.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${auth.hashing.pool-size:0}") int poolSize,
+            @Value("${auth.hashing.queue-capacity:8}") int queueCapacity,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${auth.hashing.timeout:PT5S}") Duration timeout,
+            @Value("${auth.hashing.retry-after:PT2S}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+
+        // Hashing is pure CPU, more threads than cores only adds contention
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        int maxCallers = Math.max(2, connectionPoolSize / 2);
+        if (threads + queueCapacity > maxCallers) {
+            threads = Math.min(threads, maxCallers - 1);
+            queueCapacity = Math.min(queueCapacity, maxCallers - threads);
+            log.warn("⚠️ Password hashing capped to {} threads + {} queued, half of the {} pooled connections",
+                    threads, queueCapacity, connectionPoolSize);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.hashing");
+        this.verifyTimer = meterRegistry.timer("auth.password.verify");
+        this.encodeTimer = meterRegistry.timer("auth.password.encode");
+        this.rejected = meterRegistry.counter("auth.hashing.rejected");
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Log the cost of one hash at the configured strength on this hardware, the
+     * number to look at when tuning the BCrypt cost factor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            passwordEncoder.encode("calibration-" + i);
+        }
+        long avgMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / CALIBRATION_ROUNDS;
+        log.info("🔐 Password hashing: ~{} ms per hash, {} threads, queue {}",
+                avgMillis, executor.getCorePoolSize(), executor.getQueue().remainingCapacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("⚠️ Password hashing saturated ({} queued), rejecting request", executor.getQueue().size());
+            throw new AppException(ErrorCode.TOO_MANY_REQUESTS, retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new AppException(ErrorCode.TOO_MANY_REQUESTS, retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.InvalidatedToken;
+import com.example.demo.repository.InvalidatedTokenRepository;
+import com.example.demo.util.BloomFilter;
+import com.example.demo.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of invalidated_tokens so decoding a JWT does not hit MySQL.
+ * <p>
+ * A bloom filter answers "not revoked" for almost every request, positives are
+ * confirmed against the exact jti -> expiry map and a filter hit missing from
+ * the map (false positive) against the database. A filter miss is not checked
+ * against the database: revocations made on this instance are visible at once,
+ * those made on other instances once {@link #refresh} picked them up, i.e. after
+ * up to jwt.revocation.refresh-interval-ms. Endpoints that cannot live with that
+ * window use {@link #isRevokedNow}. Entries only live until the token expires;
+ * the purge job drops them from memory and the table.
+ */
+@Slf4j
+@Component
+public class RevokedTokenStore {
+    // Rows written by other instances may carry a slightly older revoked_at than our clock
+    private static final long REFRESH_OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+
+    private final Map<String, Long> expiryByJti = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile boolean loaded = false;
+    private volatile long refreshedUntil = 0;
+
+    public RevokedTokenStore(InvalidatedTokenRepository invalidatedTokenRepository,
+            @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        // Requests served before the startup load still go to the table
+        if (!loaded) {
+            return invalidatedTokenRepository.existsById(jti);
+        }
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiry = expiryByJti.get(jti);
+        if (expiry != null) {
+            return true;
+        }
+        return invalidatedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Asks the table, so revocations other instances made since the last refresh
+     * count too. For the low-traffic token endpoints (refresh, logout, introspect).
+     */
+    public boolean isRevokedNow(String jti) {
+        return jti != null && invalidatedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Persist the revocation and make it visible in memory once the transaction commits.
+     */
+    public void revoke(String jti, Date expiryTime) {
+        Date now = new Date();
+        invalidatedTokenRepository.save(InvalidatedToken.builder()
+                .id(jti)
+                .expiryTime(expiryTime)
+                .revokedAt(now)
+                .build());
+        TransactionUtil.afterCommit(() -> remember(jti, expiryTime.getTime()));
+    }
+
+    /**
+     * Revoke only if nobody did it first, atomically at the database. Used for
+     * refresh-token rotation: of two requests presenting the same token, one wins.
+     */
+    public boolean revokeIfAbsent(String jti, Date expiryTime) {
+        int inserted = invalidatedTokenRepository.insertIfAbsent(jti, expiryTime, new Date());
+        if (inserted == 0) {
+            return false;
+        }
+        TransactionUtil.afterCommit(() -> remember(jti, expiryTime.getTime()));
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long now = System.currentTimeMillis();
+        List<InvalidatedToken> tokens = invalidatedTokenRepository.findByExpiryTimeAfter(new Date(now));
+        tokens.forEach(token -> remember(token.getId(), token.getExpiryTime().getTime()));
+        refreshedUntil = now;
+        loaded = true;
+        log.info("🔑 Loaded {} revoked tokens into memory", tokens.size());
+    }
+
+    /**
+     * Pick up rows written by other instances since the previous refresh.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Date since = new Date(refreshedUntil - REFRESH_OVERLAP_MS);
+        for (InvalidatedToken token : invalidatedTokenRepository.findByRevokedAtAfter(since)) {
+            if (token.getExpiryTime().getTime() > now) {
+                remember(token.getId(), token.getExpiryTime().getTime());
+            }
+        }
+        refreshedUntil = now;
+    }
+
+    /**
+     * Delete expired rows and rebuild the filter from what is still live, since a
+     * bloom filter cannot forget entries on its own.
+     */
+    @Transactional
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 0 * * * *}")
+    public synchronized void purge() {
+        long now = System.currentTimeMillis();
+        int deleted = invalidatedTokenRepository.deleteExpired(new Date(now));
+
+        expiryByJti.values().removeIf(expiry -> expiry <= now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2L * expiryByJti.size()), falsePositiveRate);
+        expiryByJti.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+
+        log.info("🔑 Purged {} expired revoked tokens, {} still tracked", deleted, expiryByJti.size());
+    }
+
+    // Synchronized with purge() so an entry cannot land in a filter that is being replaced
+    private synchronized void remember(String jti, long expiryMillis) {
+        expiryByJti.put(jti, expiryMillis);
+        filter.put(jti);
+    }
+}
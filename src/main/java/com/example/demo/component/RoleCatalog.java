@@ -0,0 +1,99 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.Permission;
+import com.example.demo.entity.Role;
+import com.example.demo.repository.RoleRepository;
+import com.example.demo.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Immutable in-memory copy of roles and their permissions.
+ * <p>
+ * Every role carries its precomputed JWT scope fragment ("ROLE_X perm1 perm2"),
+ * so a token scope is a join over the user's role ids with no permission
+ * queries, and roles can be assigned by name through a reference without a
+ * findByName. The snapshot is swapped whole on reload: after in-app changes
+ * (on commit), and periodically for edits made directly in the database.
+ */
+@Slf4j
+@Component
+public class RoleCatalog {
+    private final RoleRepository roleRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    private record Snapshot(Map<String, Long> idsByName, Map<Long, String> scopesById) {
+    }
+
+    public RoleCatalog(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Role to attach to a user. Known roles are returned as a lazy reference (no
+     * query); unknown names, or calls before the first load, fall back to the table.
+     */
+    public Optional<Role> findReference(String name) {
+        Long id = snapshot.idsByName().get(name);
+        if (id != null) {
+            return Optional.of(roleRepository.getReferenceById(id));
+        }
+        return roleRepository.findByName(name);
+    }
+
+    /**
+     * JWT scope for the given roles, e.g. "ROLE_USER ROLE_EXPERT blog:write".
+     */
+    public String scopeOf(Collection<Role> roles) {
+        StringJoiner scope = new StringJoiner(" ");
+        if (!CollectionUtils.isEmpty(roles)) {
+            Map<Long, String> scopes = snapshot.scopesById();
+            // getId() does not initialize a lazy role proxy
+            roles.forEach(role -> {
+                String fragment = scopes.get(role.getId());
+                scope.add(fragment != null ? fragment : scopeFragment(role));
+            });
+        }
+        return scope.toString();
+    }
+
+    public void reloadAfterCommit() {
+        TransactionUtil.afterCommit(this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.role-catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        Map<String, Long> idsByName = new HashMap<>();
+        Map<Long, String> scopesById = new HashMap<>();
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            idsByName.put(role.getName(), role.getId());
+            scopesById.put(role.getId(), scopeFragment(role));
+        }
+        snapshot = new Snapshot(Map.copyOf(idsByName), Map.copyOf(scopesById));
+        log.debug("Role catalog loaded: {}", idsByName.keySet());
+    }
+
+    private String scopeFragment(Role role) {
+        StringJoiner fragment = new StringJoiner(" ");
+        fragment.add("ROLE_" + role.getName());
+        if (!CollectionUtils.isEmpty(role.getPermissions())) {
+            role.getPermissions().stream()
+                    .map(Permission::getName)
+                    .sorted()
+                    .forEach(fragment::add);
+        }
+        return fragment.toString();
+    }
+}
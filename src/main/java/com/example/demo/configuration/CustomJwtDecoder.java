@@ -1,6 +1,6 @@
 package com.example.demo.configuration;
 
-import com.example.demo.repository.InvalidatedTokenRepository;
+import com.example.demo.component.RevokedTokenStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,7 +21,7 @@ public class CustomJwtDecoder implements JwtDecoder {
     @Value("${jwt.signerKey}")
     private String signerKey;
 
-    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final RevokedTokenStore revokedTokenStore;
 
     private NimbusJwtDecoder nimbusJwtDecoder = null;
 
@@ -45,7 +45,7 @@ public class CustomJwtDecoder implements JwtDecoder {
 
             // Kiểm tra token có trong blacklist không
             String jti = jwt.getId();
-            if (jti != null && invalidatedTokenRepository.existsById(jti)) {
+            if (revokedTokenStore.isRevoked(jti)) {
                 log.warn("🔑 [JWT] Token is blacklisted: {}", jti);
                 throw new JwtException("Token has been invalidated");
             }
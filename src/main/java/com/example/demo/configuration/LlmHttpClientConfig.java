@@ -0,0 +1,54 @@
+package com.example.demo.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP client of the model provider, shared by the blocking (RestClient) and
+ * streaming (WebClient) calls Spring AI makes.
+ * <p>
+ * One JDK HttpClient: keep-alive connection pool, HTTP/2 negotiated over TLS
+ * (one multiplexed connection instead of one per concurrent call, HTTP/1.1
+ * fallback), connect timeout, and a read timeout on blocking calls. Streams
+ * are bounded by ai.chat.stream-timeout instead. The app makes no other
+ * RestClient / WebClient calls, so the customizers only affect Spring AI.
+ */
+@Configuration
+public class LlmHttpClientConfig {
+
+    @Value("${ai.llm.http.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${ai.llm.http.read-timeout:PT60S}")
+    private Duration readTimeout;
+
+    @Bean
+    public HttpClient llmHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Bean
+    public RestClientCustomizer llmRestClientCustomizer(HttpClient llmHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(llmHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder -> builder.requestFactory(requestFactory);
+    }
+
+    @Bean
+    public WebClientCustomizer llmWebClientCustomizer(HttpClient llmHttpClient) {
+        return builder -> builder.clientConnector(new JdkClientHttpConnector(llmHttpClient));
+    }
+}
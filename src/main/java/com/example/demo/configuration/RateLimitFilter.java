@@ -0,0 +1,227 @@
+package com.example.demo.configuration;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.util.RequestUtil;
+import com.example.demo.util.TokenBucket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the credential endpoints (login, register, Google sign-in, password
+ * reset) with token buckets per client IP and per target account, so a
+ * credential-stuffing burst is cut off before it becomes BCrypt work or OTP mail.
+ * <p>
+ * Buckets live in bounded Caffeine caches (one per rule and dimension) and are
+ * updated with CAS only, see {@link TokenBucket}. A bucket untouched for its
+ * period has refilled completely, so it expires then; dropping it is equivalent
+ * to keeping it. Beyond rate-limit.max-keys the least valuable buckets are
+ * evicted, so a spray of keys never turns the limit off. The IP dimension uses
+ * {@link RequestUtil#clientAddress}, which a client cannot choose through
+ * X-Forwarded-For. Requests on other paths cost one pattern match per rule.
+ * Each rejection increments http.rate_limit.rejected tagged with the rule and dimension.
+ * <p>
+ * Registered as a plain servlet filter after the security chain, so 429
+ * responses still carry the CORS headers.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    // Bodies above this are not buffered for the account key, only the IP limit applies
+    private static final int MAX_BUFFERED_BODY = 16 * 1024;
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, Cache<String, TokenBucket>> bucketsByRule = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || findRule(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitProperties.Rule rule = findRule(request.getRequestURI());
+        long now = System.nanoTime();
+
+        if (rule.getPerIp() != null) {
+            long wait = acquire(rule, "ip", RequestUtil.clientAddress(request), rule.getPerIp(), now);
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+
+        HttpServletRequest forwarded = request;
+        if (rule.getPerAccount() != null) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            if (cached != null) {
+                forwarded = cached;
+                String account = readAccount(cached, rule.getAccountField());
+                if (account != null) {
+                    long wait = acquire(rule, "account", account, rule.getPerAccount(), now);
+                    if (wait > 0) {
+                        reject(response, wait);
+                        return;
+                    }
+                }
+            }
+        }
+
+        chain.doFilter(forwarded, response);
+    }
+
+    private RateLimitProperties.Rule findRule(String path) {
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            for (String pattern : rule.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return rule;
+                }
+            }
+        }
+        return null;
+    }
+
+    private long acquire(RateLimitProperties.Rule rule, String dimension, String key,
+            RateLimitProperties.Limit limit, long now) {
+        Cache<String, TokenBucket> buckets = bucketsByRule.computeIfAbsent(rule.getName() + ":" + dimension,
+                name -> Caffeine.newBuilder()
+                        .maximumSize(properties.getMaxKeys())
+                        .expireAfterAccess(limit.getPeriod())
+                        .build());
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.getCapacity(), limit.getPeriod(), now));
+
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            meterRegistry.counter("http.rate_limit.rejected", "rule", rule.getName(), "dimension", dimension)
+                    .increment();
+            // The counter is the signal; no key here, an account key is the user's email
+            log.debug("Rate limit '{}' hit on {}", rule.getName(), dimension);
+        }
+        return wait;
+    }
+
+    private String readAccount(CachedBodyRequest request, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(request.body).get(field);
+            return value != null && value.isTextual() ? value.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed body: let the controller produce the usual 400
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        ErrorCode errorCode = ErrorCode.TOO_MANY_REQUESTS;
+
+        response.setStatus(errorCode.getStatusCode().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+
+        ApiResponse<?> apiResponse = ApiResponse.builder()
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .build();
+
+        response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
+        response.flushBuffer();
+    }
+
+    /**
+     * Request with its (small, JSON) body read up front so the filter can look at
+     * it and the controller can still read it.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length < 0 || length > MAX_BUFFERED_BODY
+                    || request.getContentType() == null
+                    || !request.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE)) {
+                return null;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
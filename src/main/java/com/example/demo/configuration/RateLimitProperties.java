@@ -0,0 +1,48 @@
+package com.example.demo.configuration;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route limits for {@link RateLimitFilter}, bound from rate-limit.* in application.yaml.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RateLimitProperties {
+    boolean enabled = true;
+    // Upper bound on tracked keys per rule and dimension, beyond it buckets are evicted (never skipped)
+    int maxKeys = 100_000;
+    List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Rule {
+        String name;
+        // Ant-style patterns, e.g. /auth/password/**
+        List<String> paths = new ArrayList<>();
+        Limit perIp;
+        // Keyed by a field of the JSON body (accountField), e.g. the email being logged into
+        Limit perAccount;
+        String accountField = "email";
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Limit {
+        int capacity;
+        Duration period;
+    }
+}
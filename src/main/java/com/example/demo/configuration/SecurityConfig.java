@@ -1,6 +1,7 @@
 package com.example.demo.configuration;
 
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -55,6 +56,7 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
                         .requestMatchers(HttpMethod.GET, "/blogs/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/comments/*/replies").permitAll()
                         .requestMatchers(HttpMethod.GET, "/workshops/**").permitAll()
                         // Swagger UI - Explicitly permit all variations
                         .requestMatchers(
@@ -121,8 +123,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    PasswordEncoder passwordEncoder(@Value("${auth.hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
 }
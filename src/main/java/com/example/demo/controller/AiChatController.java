@@ -3,7 +3,9 @@ package com.example.demo.controller;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.service.AiChatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -25,6 +27,15 @@ public class AiChatController {
                 .build();
     }
 
+    /**
+     * Streaming variant of /chat: Server-Sent Events "token" (text chunk), then
+     * "done", or "error" with a fallback message.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody Map<String, String> request) {
+        return aiChatService.chatStream(request.get("message"));
+    }
+
     @GetMapping("/history")
     public ApiResponse<org.springframework.data.domain.Page<com.example.demo.entity.AiChatLog>> getChatHistory(
             @org.springframework.data.web.PageableDefault(size = 50, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) org.springframework.data.domain.Pageable pageable) {
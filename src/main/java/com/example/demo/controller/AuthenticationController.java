@@ -4,6 +4,7 @@ import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.request.AuthenticationRequest;
 import com.example.demo.dto.request.GoogleLoginRequest;
 import com.example.demo.dto.request.IntrospectRequest;
+import com.example.demo.dto.request.RefreshRequest;
 import com.example.demo.dto.request.UserRegistrationRequest;
 import com.example.demo.dto.response.AuthenticationResponse;
 import com.example.demo.dto.response.IntrospectResponse;
@@ -76,6 +77,13 @@ public class AuthenticationController {
         return ApiResponse.<IntrospectResponse>builder().result(result).build();
     }
 
+    @PostMapping("/refresh")
+    ApiResponse<AuthenticationResponse> refresh(@Valid @RequestBody RefreshRequest request)
+            throws ParseException, JOSEException {
+        var result = authenticationService.refreshToken(request);
+        return ApiResponse.<AuthenticationResponse>builder().result(result).build();
+    }
+
     @PostMapping("/logout")
     ApiResponse<Void> logout(@Valid @RequestBody IntrospectRequest request) throws ParseException, JOSEException {
         authenticationService.logout(request);
@@ -2,14 +2,21 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.request.BlogCreateRequest;
+import com.example.demo.dto.request.BlogModerationRequest;
 import com.example.demo.dto.request.BlogUpdateRequest;
 import com.example.demo.dto.request.CommentRequest;
+import com.example.demo.dto.response.BlogModerationResponse;
 import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.dto.response.BlogSearchResponse;
+import com.example.demo.dto.response.BlogSummaryResponse;
 import com.example.demo.dto.response.CategoryResponse;
 import com.example.demo.dto.response.CommentResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.entity.Blog;
 import com.example.demo.service.BlogService;
 import com.example.demo.service.CommentService;
+import com.example.demo.util.RequestUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -49,6 +56,25 @@ public class BlogController {
                                 .build());
         }
 
+        @GetMapping("/moderation")
+        @PreAuthorize("hasRole('EXPERT') or hasRole('ADMIN')")
+        public ResponseEntity<ApiResponse<CursorPageResponse<BlogSummaryResponse>>> getModerationQueue(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                return ResponseEntity.ok(ApiResponse.<CursorPageResponse<BlogSummaryResponse>>builder()
+                                .result(blogService.getModerationQueue(cursor, size))
+                                .build());
+        }
+
+        @PostMapping("/moderation")
+        @PreAuthorize("hasRole('EXPERT') or hasRole('ADMIN')")
+        public ResponseEntity<ApiResponse<BlogModerationResponse>> moderateBlogs(
+                        @Valid @RequestBody BlogModerationRequest request) {
+                return ResponseEntity.ok(ApiResponse.<BlogModerationResponse>builder()
+                                .result(blogService.moderateBlogs(request))
+                                .build());
+        }
+
         @PutMapping("/{id}")
         @PreAuthorize("hasRole('ADMIN') or hasRole('EXPERT')")
         public ResponseEntity<ApiResponse<BlogResponse>> updateBlog(@PathVariable Long id,
@@ -69,41 +95,60 @@ public class BlogController {
         }
 
         @GetMapping("/{id}")
-        public ResponseEntity<ApiResponse<BlogResponse>> getBlogById(@PathVariable Long id) {
+        public ResponseEntity<ApiResponse<BlogResponse>> getBlogById(@PathVariable Long id,
+                        HttpServletRequest httpRequest) {
                 BlogResponse response = blogService.getBlogById(id);
+                blogService.recordView(id, RequestUtil.clientAddress(httpRequest));
+                return ResponseEntity.ok(ApiResponse.<BlogResponse>builder()
+                                .result(response)
+                                .build());
+        }
+
+        @GetMapping("/slug/{slug}")
+        public ResponseEntity<ApiResponse<BlogResponse>> getBlogBySlug(@PathVariable String slug,
+                        HttpServletRequest httpRequest) {
+                BlogResponse response = blogService.getBlogBySlug(slug);
+                blogService.recordView(response.getId(), RequestUtil.clientAddress(httpRequest));
                 return ResponseEntity.ok(ApiResponse.<BlogResponse>builder()
                                 .result(response)
                                 .build());
         }
 
         @GetMapping
-        public ResponseEntity<ApiResponse<List<BlogResponse>>> getAllBlogs() {
-                List<BlogResponse> blogs = blogService.getAllBlogs();
-                return ResponseEntity.ok(ApiResponse.<List<BlogResponse>>builder()
+        public ResponseEntity<ApiResponse<CursorPageResponse<BlogSummaryResponse>>> getAllBlogs(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                CursorPageResponse<BlogSummaryResponse> blogs = blogService.getAllBlogs(cursor, size);
+                return ResponseEntity.ok(ApiResponse.<CursorPageResponse<BlogSummaryResponse>>builder()
                                 .result(blogs)
                                 .build());
         }
 
         @GetMapping("/published")
-        public ResponseEntity<ApiResponse<List<BlogResponse>>> getPublishedBlogs() {
-                List<BlogResponse> blogs = blogService.getPublishedBlogs();
-                return ResponseEntity.ok(ApiResponse.<List<BlogResponse>>builder()
+        public ResponseEntity<ApiResponse<CursorPageResponse<BlogSummaryResponse>>> getPublishedBlogs(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                CursorPageResponse<BlogSummaryResponse> blogs = blogService.getPublishedBlogs(cursor, size);
+                return ResponseEntity.ok(ApiResponse.<CursorPageResponse<BlogSummaryResponse>>builder()
                                 .result(blogs)
                                 .build());
         }
 
         @GetMapping("/featured")
-        public ResponseEntity<ApiResponse<List<BlogResponse>>> getFeaturedBlogs() {
-                List<BlogResponse> blogs = blogService.getFeaturedBlogs();
-                return ResponseEntity.ok(ApiResponse.<List<BlogResponse>>builder()
+        public ResponseEntity<ApiResponse<List<BlogSummaryResponse>>> getFeaturedBlogs() {
+                List<BlogSummaryResponse> blogs = blogService.getFeaturedBlogs();
+                return ResponseEntity.ok(ApiResponse.<List<BlogSummaryResponse>>builder()
                                 .result(blogs)
                                 .build());
         }
 
         @GetMapping("/expert/{expertId}")
-        public ResponseEntity<ApiResponse<List<BlogResponse>>> getBlogsByExpert(@PathVariable Long expertId) {
-                List<BlogResponse> blogs = blogService.getBlogsByExpert(expertId);
-                return ResponseEntity.ok(ApiResponse.<List<BlogResponse>>builder()
+        public ResponseEntity<ApiResponse<CursorPageResponse<BlogSummaryResponse>>> getBlogsByExpert(
+                        @PathVariable Long expertId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                CursorPageResponse<BlogSummaryResponse> blogs = blogService.getBlogsByExpert(expertId, cursor, size);
+                return ResponseEntity.ok(ApiResponse.<CursorPageResponse<BlogSummaryResponse>>builder()
                                 .result(blogs)
                                 .build());
         }
@@ -116,12 +161,16 @@ public class BlogController {
         }
 
         @GetMapping("/search")
-        public ResponseEntity<ApiResponse<List<BlogResponse>>> searchBlogs(
-                        @RequestParam(required = false) String title,
+        public ResponseEntity<ApiResponse<BlogSearchResponse>> searchBlogs(
+                        @RequestParam(required = false) String q,
+                        @RequestParam(required = false) String title, // Kept as an alias of q for older clients
                         @RequestParam(required = false) Long categoryId,
-                        @RequestParam(required = false) Blog.BlogStatus status) {
-                List<BlogResponse> blogs = blogService.searchBlogs(title, categoryId, status);
-                return ResponseEntity.ok(ApiResponse.<List<BlogResponse>>builder()
+                        @RequestParam(required = false) Blog.BlogStatus status,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size) {
+                String query = q != null ? q : title;
+                BlogSearchResponse blogs = blogService.searchBlogs(query, categoryId, status, page, size);
+                return ResponseEntity.ok(ApiResponse.<BlogSearchResponse>builder()
                                 .result(blogs)
                                 .build());
         }
@@ -145,9 +194,12 @@ public class BlogController {
         }
 
         @GetMapping("/{id}/comments")
-        public ResponseEntity<ApiResponse<List<CommentResponse>>> getComments(@PathVariable Long id) {
-                return ResponseEntity.ok(ApiResponse.<List<CommentResponse>>builder()
-                                .result(commentService.getCommentsByBlogId(id))
+        public ResponseEntity<ApiResponse<CursorPageResponse<CommentResponse>>> getComments(@PathVariable Long id,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "false") boolean threaded) {
+                return ResponseEntity.ok(ApiResponse.<CursorPageResponse<CommentResponse>>builder()
+                                .result(commentService.getCommentsByBlogId(id, cursor, size, threaded))
                                 .build());
         }
 
@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.response.CommentResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.service.CommentService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,15 @@ import org.springframework.web.bind.annotation.*;
 public class CommentController {
     CommentService commentService;
 
+    @GetMapping("/{id}/replies")
+    public ApiResponse<CursorPageResponse<CommentResponse>> getReplies(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.<CursorPageResponse<CommentResponse>>builder()
+                .result(commentService.getReplies(id, cursor, size))
+                .build();
+    }
+
     @PostMapping("/{id}/like")
     public ApiResponse<Void> likeComment(@PathVariable Long id) {
         commentService.likeComment(id);
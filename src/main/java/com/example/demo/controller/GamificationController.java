@@ -1,18 +1,15 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.response.GamificationSpinBalanceResponse;
 import com.example.demo.dto.response.GamificationSpinResultResponse;
 import com.example.demo.dto.response.GamificationTodayResponse;
 import com.example.demo.entity.User;
-import com.example.demo.exception.AppException;
-import com.example.demo.exception.ErrorCode;
-import com.example.demo.repository.UserRepository;
 import com.example.demo.service.GamificationService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,12 +21,11 @@ import org.springframework.web.bind.annotation.RestController;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class GamificationController {
     GamificationService gamificationService;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
 
+    // GamificationService only reads the id and sets foreign keys
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        return currentUserResolver.getUserReference();
     }
 
     @GetMapping("/spins")
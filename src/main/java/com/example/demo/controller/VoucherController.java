@@ -1,17 +1,15 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.ApiResponse;
-import com.example.demo.entity.User;
 import com.example.demo.entity.UserVoucher;
 import com.example.demo.entity.Voucher;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
-import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.UserVoucherRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -23,18 +21,16 @@ import java.util.Map;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class VoucherController {
     UserVoucherRepository userVoucherRepository;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
 
     @GetMapping("/validate")
     public ApiResponse<Map<String, Object>> validateVoucher(@RequestParam String code) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        Long userId = currentUserResolver.requireUserId();
 
         UserVoucher uv = userVoucherRepository.findByCode(code)
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Voucher không tồn tại"));
 
-        if (!uv.getUser().getId().equals(user.getId())) {
+        if (!uv.getUser().getId().equals(userId)) {
             throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Voucher không thuộc về bạn");
         }
 
@@ -56,11 +52,9 @@ public class VoucherController {
 
     @GetMapping("/my-vouchers")
     public ApiResponse<java.util.List<Map<String, Object>>> getMyVouchers() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        Long userId = currentUserResolver.requireUserId();
 
-        java.util.List<UserVoucher> userVouchers = userVoucherRepository.findAllByUser_Id(user.getId());
+        java.util.List<UserVoucher> userVouchers = userVoucherRepository.findAllByUser_Id(userId);
         
         java.util.List<Map<String, Object>> result = userVouchers.stream().map(uv -> {
             Map<String, Object> map = new HashMap<>();
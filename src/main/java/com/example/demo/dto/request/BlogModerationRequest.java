@@ -0,0 +1,29 @@
+package com.example.demo.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BlogModerationRequest {
+    @NotEmpty(message = "Blog IDs are required")
+    @Size(max = 200, message = "Maximum 200 blogs per batch")
+    List<Long> blogIds;
+
+    @NotNull(message = "Action is required")
+    Action action;
+
+    public enum Action {
+        APPROVE, // PENDING -> PUBLISHED
+        REJECT // PENDING -> DRAFT, back to the author
+    }
+}
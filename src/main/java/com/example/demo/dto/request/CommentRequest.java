@@ -13,4 +13,6 @@ import lombok.experimental.FieldDefaults;
 public class CommentRequest {
     @NotBlank(message = "Content cannot be empty")
     String content;
+
+    Long parentId; // Optional, reply to this comment
 }
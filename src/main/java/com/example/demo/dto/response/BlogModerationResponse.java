@@ -0,0 +1,19 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.entity.Blog;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BlogModerationResponse {
+    Blog.BlogStatus status; // Status the moderated blogs now have
+    List<Long> updatedIds; // Blogs that were PENDING and got moderated
+    int skipped; // Requested ids that were missing or no longer PENDING
+}
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BlogResponse {
     Long id;
@@ -25,6 +25,9 @@ public class BlogResponse {
     String title;
     String slug;
     String content;
+    String excerpt;
+    String coverImageUrl;
+    Integer readingTimeMinutes;
     java.util.List<String> imageUrls;
     Integer viewCount;
     Long likeCount;
@@ -0,0 +1,20 @@
+package com.example.demo.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BlogSearchResponse {
+    List<BlogSummaryResponse> items; // Ranked by relevance, or newest first when no query is given
+    long total;
+    int page;
+    int size;
+    boolean hasNext;
+}
@@ -0,0 +1,41 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.entity.Blog;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card shape of a blog for listing endpoints; full content is only in {@link BlogResponse}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BlogSummaryResponse {
+    Long id;
+    Long expertId;
+    String expertName;
+    String authorName;
+    Long authorId;
+    String authorAvatar;
+    Long expertUserId;
+    Long categoryId;
+    String categoryName;
+    String title;
+    String slug;
+    String excerpt;
+    String coverImageUrl;
+    Integer readingTimeMinutes;
+    Integer viewCount;
+    Long likeCount;
+    Long commentCount;
+    boolean isLiked;
+    boolean isFeatured;
+    Blog.BlogStatus status;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+}
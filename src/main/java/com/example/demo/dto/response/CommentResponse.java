@@ -13,9 +13,11 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class CommentResponse {
     Long id;
+    Long parentId; // Null for top-level comments
     String content;
     UserResponse user;
     LocalDateTime createdAt;
     long likeCount;
     boolean isLiked; // Whether the current user liked this comment
+    Long replyCount; // Only filled for threaded listings
 }
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ai_chat_logs")
+@Table(name = "ai_chat_logs", indexes = {
+        // Recent turns of a user, see AiChatLogRepository#findRecentTurns
+        @Index(name = "idx_ai_chat_logs_user_created", columnList = "user_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +30,16 @@ public class AiChatLog {
     @Column(name = "ai_response", columnDefinition = "TEXT")
     private String aiResponse;
 
+    // Reported by the provider, or estimated locally for streamed answers
+    @Column(name = "prompt_tokens")
+    private Integer promptTokens;
+
+    @Column(name = "completion_tokens")
+    private Integer completionTokens;
+
+    @Column(name = "latency_ms")
+    private Integer latencyMs;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
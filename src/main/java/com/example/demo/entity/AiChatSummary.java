@@ -0,0 +1,44 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running summary of a user's older AI chat turns, one row per user.
+ * Turns with id up to summarized_until_id are covered by the summary and
+ * no longer loaded as separate messages.
+ */
+@Entity
+@Table(name = "ai_chat_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AiChatSummary {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "summary", columnDefinition = "TEXT", nullable = false)
+    private String summary;
+
+    // ai_chat_logs.id of the newest folded turn
+    @Column(name = "summarized_until_id", nullable = false)
+    private Long summarizedUntilId;
+
+    // Two folds of the same user racing: the later one fails and its job retries
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
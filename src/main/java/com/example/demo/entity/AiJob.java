@@ -0,0 +1,85 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable background LLM call (e.g. the healing reply of a journal entry).
+ * Unique on (type, subject_id, content_hash), so the same content of a
+ * subject is never queued twice.
+ */
+@Entity
+@Table(name = "ai_jobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ai_jobs_subject_hash", columnNames = { "type", "subject_id", "content_hash" })
+}, indexes = {
+        @Index(name = "idx_ai_jobs_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AiJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private Type type;
+
+    // Id of the row the job works on, e.g. journals.id
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // RUNNING jobs whose lease ran out (instance died mid-call) are picked up again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Type {
+        JOURNAL_HEALING,
+        // Fold older AI chat turns of a user into the running summary
+        CHAT_SUMMARY
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED,
+        // Subject changed or was deleted before the job ran, no call made
+        SUPERSEDED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
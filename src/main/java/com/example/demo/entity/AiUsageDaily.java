@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Model usage of one user on one day, written in batches by AiUsageMeter
+ * (upsert adding to the existing counters).
+ */
+@Entity
+@Table(name = "ai_usage_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ai_usage_daily_user_date", columnNames = { "user_id", "usage_date" })
+}, indexes = {
+        // Today's totals of all users are reloaded after each flush
+        @Index(name = "idx_ai_usage_daily_date", columnList = "usage_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AiUsageDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "calls", nullable = false)
+    private long calls;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private long promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private long completionTokens;
+
+    // Sum of call latencies, divided by calls for the average
+    @Column(name = "latency_ms", nullable = false)
+    private long latencyMs;
+}
@@ -10,11 +10,32 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "blogs")
+@Table(name = "blogs", indexes = {
+        // Keyset pagination seeks on (created_at, id), optionally behind an equality prefix
+        @Index(name = "idx_blogs_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_blogs_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_blogs_expert_created_id", columnList = "expert_id, created_at, id"),
+        // Search index resync reads rows changed since its last run
+        @Index(name = "idx_blogs_updated_id", columnList = "updated_at, id")
+})
+@NamedEntityGraph(name = Blog.FEED_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode(value = "author", subgraph = "user"),
+        @NamedAttributeNode(value = "expert", subgraph = "expert")
+}, subgraphs = {
+        // User's one-to-one inverse sides are eager, fetch them here to avoid a select per row
+        @NamedSubgraph(name = "user", attributeNodes = {
+                @NamedAttributeNode("expertProfile"),
+                @NamedAttributeNode("userStats")
+        }),
+        @NamedSubgraph(name = "expert", attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Blog {
+    public static final String FEED_GRAPH = "Blog.feed";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,13 +57,31 @@ public class Blog {
     @Column(name = "content", columnDefinition = "LONGTEXT", nullable = false)
     private String content;
 
+    // Card fields computed once on write (BlogSummaryUtil) so listings never load content
+    @Column(name = "excerpt", length = 300)
+    private String excerpt;
+
+    @Column(name = "cover_image_url", length = 500)
+    private String coverImageUrl;
+
+    @Column(name = "reading_time_minutes")
+    private Integer readingTimeMinutes;
+
     @Column(name = "image_urls", columnDefinition = "JSON")
     @Convert(converter = com.example.demo.converter.StringListConverter.class)
     private java.util.List<String> imageUrls = new java.util.ArrayList<>();
 
-    @Column(name = "view_count")
+    // Counters below are maintained with relative UPDATEs (BlogViewTracker, BlogCounterBuffer),
+    // never written from the entity
+    @Column(name = "view_count", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
     private Integer viewCount = 0;
 
+    @Column(name = "like_count", columnDefinition = "BIGINT NOT NULL DEFAULT 0", insertable = false, updatable = false)
+    private Long likeCount = 0L;
+
+    @Column(name = "comment_count", columnDefinition = "BIGINT NOT NULL DEFAULT 0", insertable = false, updatable = false)
+    private Long commentCount = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BlogStatus status = BlogStatus.DRAFT;
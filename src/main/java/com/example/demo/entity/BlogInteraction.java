@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blog_interactions")
+@Table(name = "blog_interactions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_blog_interactions_user_blog_type", columnNames = { "user_id", "blog_id", "interaction_type" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
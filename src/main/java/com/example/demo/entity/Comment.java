@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_blog_created_id", columnList = "blog_id, created_at, id"),
+        @Index(name = "idx_comments_blog_parent_created_id", columnList = "blog_id, parent_id, created_at, id"),
+        @Index(name = "idx_comments_parent_created_id", columnList = "parent_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +34,10 @@ public class Comment {
     @JoinColumn(name = "blog_id", nullable = false)
     private Blog blog;
 
+    // Root comment this one replies to, null for top-level comments (threads are one level deep)
+    @Column(name = "parent_id")
+    private Long parentId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comment_likes")
+@Table(name = "comment_likes", indexes = {
+        @Index(name = "idx_comment_likes_comment_user", columnList = "comment_id, user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
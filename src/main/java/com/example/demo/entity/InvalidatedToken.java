@@ -5,7 +5,10 @@ import lombok.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "invalidated_tokens")
+@Table(name = "invalidated_tokens", indexes = {
+        @Index(name = "idx_invalidated_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_invalidated_tokens_expiry_time", columnList = "expiry_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,4 +22,8 @@ public class InvalidatedToken {
 
     @Column(name = "expiry_time", nullable = false)
     private Date expiryTime;
+
+    // When the token was revoked, lets other instances pick up new rows incrementally
+    @Column(name = "revoked_at")
+    private Date revokedAt;
 }
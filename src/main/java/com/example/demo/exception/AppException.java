@@ -1,5 +1,7 @@
 package com.example.demo.exception;
 
+import java.time.Duration;
+
 public class AppException extends RuntimeException {
     public AppException(ErrorCode errorCode) {
         super(errorCode.getMessage());
@@ -13,13 +15,24 @@ public class AppException extends RuntimeException {
         this.message = message;
     }
 
+    // Sent back as Retry-After, for overload errors the client should retry later
+    public AppException(ErrorCode errorCode, Duration retryAfter) {
+        this(errorCode);
+        this.retryAfter = retryAfter;
+    }
+
     private ErrorCode errorCode;
     private String message;
+    private Duration retryAfter;
 
     public ErrorCode getErrorCode() {
         return errorCode;
     }
 
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
     @Override
     public String getMessage() {
         return message;
@@ -29,7 +29,11 @@ public enum ErrorCode {
     WORKSHOP_FULL(1015, "Workshop đã hết chỗ rồi bạn ơi!", HttpStatus.BAD_REQUEST),
     WORKSHOP_ALREADY_BOOKED(1016, "Bạn đã đặt chỗ cho Workshop này rồi!", HttpStatus.BAD_REQUEST),
     WORKSHOP_NOT_BOOKED(1017, "Bạn chưa đăng ký Workshop này!", HttpStatus.BAD_REQUEST),
-    WORKSHOP_CANCEL_EXPIRED(1018, "Không thể hủy đăng ký sau 1 giờ!", HttpStatus.BAD_REQUEST);
+    WORKSHOP_CANCEL_EXPIRED(1018, "Không thể hủy đăng ký sau 1 giờ!", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(1020, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    TOO_MANY_REQUESTS(1021, "Too many requests, please try again later.", HttpStatus.TOO_MANY_REQUESTS),
+    AI_UNAVAILABLE(1022, "AI service is temporarily unavailable, please try again later.", HttpStatus.SERVICE_UNAVAILABLE),
+    AI_QUOTA_EXCEEDED(1023, "Bạn đã dùng hết lượt trò chuyện AI hôm nay, hãy quay lại vào ngày mai nhé!", HttpStatus.TOO_MANY_REQUESTS);
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
         this.code = code;
@@ -3,6 +3,7 @@ package com.example.demo.exception;
 import com.example.demo.dto.ApiResponse;
 import jakarta.validation.ConstraintViolation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -40,7 +41,12 @@ public class GlobalExceptionHandler {
         apiResponse.setCode(errorCode.getCode());
         apiResponse.setMessage(exception.getMessage());
 
-        return ResponseEntity.status(errorCode.getStatusCode()).body(apiResponse);
+        var response = ResponseEntity.status(errorCode.getStatusCode());
+        if (exception.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())));
+        }
+        return response.body(apiResponse);
     }
 
     @ExceptionHandler(value = AccessDeniedException.class)
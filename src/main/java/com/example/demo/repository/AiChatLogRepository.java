@@ -4,6 +4,8 @@ import com.example.demo.entity.AiChatLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -26,4 +28,16 @@ public interface AiChatLogRepository extends JpaRepository<AiChatLog, Long> {
 
     // Delete all chat logs for a user
     void deleteByUserId(Long userId);
+
+    // Newest turns not yet folded into the summary, served by idx_ai_chat_logs_user_created
+    @Query("SELECT l.id AS id, l.userMessage AS userMessage, l.aiResponse AS aiResponse FROM AiChatLog l " +
+            "WHERE l.user.id = :userId AND l.id > :afterId ORDER BY l.createdAt DESC, l.id DESC")
+    List<AiChatTurnView> findRecentTurns(@Param("userId") Long userId, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Turns in (afterId, untilId], oldest first, to be folded into the summary
+    @Query("SELECT l.id AS id, l.userMessage AS userMessage, l.aiResponse AS aiResponse FROM AiChatLog l " +
+            "WHERE l.user.id = :userId AND l.id > :afterId AND l.id <= :untilId ORDER BY l.id ASC")
+    List<AiChatTurnView> findTurnsToFold(@Param("userId") Long userId, @Param("afterId") Long afterId,
+            @Param("untilId") Long untilId, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+/**
+ * One question / answer pair of the AI chat, without the user and timestamp.
+ */
+public interface AiChatTurnView {
+    Long getId();
+
+    String getUserMessage();
+
+    String getAiResponse();
+}
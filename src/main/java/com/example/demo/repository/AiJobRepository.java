@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AiJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+    // Unique (type, subject_id, content_hash): a job already queued or running for the same content
+    // is left alone, a finished one (content changed back to an earlier version) is re-armed.
+    // status is assigned last because MySQL applies the assignments left to right.
+    // Times come from the app clock, like the due / lease checks of the worker.
+    @Modifying
+    @Query(value = "INSERT INTO ai_jobs (type, subject_id, content_hash, status, attempts, " +
+            "next_attempt_at, created_at, updated_at) " +
+            "VALUES (:type, :subjectId, :contentHash, 'PENDING', 0, :now, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "attempts = IF(status IN ('PENDING', 'RUNNING'), attempts, 0), " +
+            "next_attempt_at = IF(status IN ('PENDING', 'RUNNING'), next_attempt_at, :now), " +
+            "last_error = IF(status IN ('PENDING', 'RUNNING'), last_error, NULL), " +
+            "updated_at = :now, " +
+            "status = IF(status IN ('PENDING', 'RUNNING'), status, 'PENDING')", nativeQuery = true)
+    int upsertPending(@Param("type") String type, @Param("subjectId") Long subjectId,
+            @Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT j.id FROM AiJob j WHERE j.status = com.example.demo.entity.AiJob.Status.PENDING " +
+            "AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional update so only one worker (of any instance) gets the job
+    @Transactional
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = com.example.demo.entity.AiJob.Status.RUNNING, " +
+            "j.attempts = j.attempts + 1, j.lockedUntil = :lockedUntil, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.example.demo.entity.AiJob.Status.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Jobs left RUNNING by a crashed or killed instance
+    @Transactional
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = com.example.demo.entity.AiJob.Status.PENDING, j.lockedUntil = NULL, " +
+            "j.nextAttemptAt = :now, j.updatedAt = :now " +
+            "WHERE j.status = com.example.demo.entity.AiJob.Status.RUNNING AND j.lockedUntil < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    // Older queued versions of a subject, made obsolete by a newer edit
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = com.example.demo.entity.AiJob.Status.SUPERSEDED, j.updatedAt = :now " +
+            "WHERE j.type = :type AND j.subjectId = :subjectId AND j.contentHash <> :contentHash " +
+            "AND j.status = com.example.demo.entity.AiJob.Status.PENDING")
+    int supersedePending(@Param("type") AiJob.Type type, @Param("subjectId") Long subjectId,
+            @Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+}
@@ -4,8 +4,13 @@ import com.example.demo.entity.Blog;
 import com.example.demo.entity.BlogInteraction;
 import com.example.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,23 @@ public interface BlogInteractionRepository extends JpaRepository<BlogInteraction
     long countByBlogAndInteractionType(Blog blog, BlogInteraction.InteractionType type);
 
     boolean existsByUserAndBlogAndInteractionType(User user, Blog blog, BlogInteraction.InteractionType type);
+
+    // INSERT IGNORE + unique key makes double-clicks idempotent: returns 1 only for the first insert
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO blog_interactions (user_id, blog_id, interaction_type, created_at) " +
+            "VALUES (:userId, :blogId, :type, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("blogId") Long blogId, @Param("type") String type);
+
+    @Modifying
+    @Query("DELETE FROM BlogInteraction i " +
+            "WHERE i.user.id = :userId AND i.blog.id = :blogId AND i.interactionType = :type")
+    int deleteByUserIdAndBlogIdAndType(@Param("userId") Long userId, @Param("blogId") Long blogId,
+            @Param("type") BlogInteraction.InteractionType type);
+
+    // Which blogs of the page the given user has interacted with
+    @Query("SELECT i.blog.id FROM BlogInteraction i " +
+            "WHERE i.user.id = :userId AND i.blog.id IN :blogIds AND i.interactionType = :type")
+    List<Long> findBlogIdsByUserIdAndInteractionType(@Param("userId") Long userId,
+            @Param("blogIds") Collection<Long> blogIds,
+            @Param("type") BlogInteraction.InteractionType type);
 }
@@ -1,39 +1,128 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Blog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BlogRepository extends JpaRepository<Blog, Long> {
+    // Card columns only (see BlogSummaryView): no content / image_urls, author falls back to the expert's user
+    String SUMMARY_SELECT = "SELECT b.id AS id, b.title AS title, b.slug AS slug, b.excerpt AS excerpt, " +
+            "b.coverImageUrl AS coverImageUrl, b.readingTimeMinutes AS readingTimeMinutes, " +
+            "b.viewCount AS viewCount, b.likeCount AS likeCount, b.commentCount AS commentCount, " +
+            "b.isFeatured AS isFeatured, b.status AS status, b.createdAt AS createdAt, b.updatedAt AS updatedAt, " +
+            "c.id AS categoryId, c.name AS categoryName, e.id AS expertId, eu.id AS expertUserId, " +
+            "eu.fullName AS expertName, a.id AS authorId, a.fullName AS authorName " +
+            "FROM Blog b LEFT JOIN b.category c LEFT JOIN b.expert e LEFT JOIN e.user eu LEFT JOIN b.author a ";
+
     Optional<Blog> findBySlug(String slug);
 
+    @Query("SELECT b.id FROM Blog b WHERE b.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    // Detail page: one statement for the blog and its author/expert/category (see BlogCache)
+    @EntityGraph(Blog.FEED_GRAPH)
+    @Query("SELECT b FROM Blog b WHERE b.id = :id")
+    Optional<Blog> findDetailById(@Param("id") Long id);
+
+    // Feed queries fetch author/expert/category in the same statement (see Blog.FEED_GRAPH)
+    @Override
+    @EntityGraph(Blog.FEED_GRAPH)
+    List<Blog> findAll();
+
+    @EntityGraph(Blog.FEED_GRAPH)
     List<Blog> findByExpertId(Long expertId);
 
+    @EntityGraph(Blog.FEED_GRAPH)
     List<Blog> findByStatus(Blog.BlogStatus status);
 
-    List<Blog> findByCategoryId(Long categoryId);
+    @Query(SUMMARY_SELECT + "WHERE b.id IN :ids")
+    List<BlogSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lightweight rows for building the search index: [id, title, content, categoryId, status, createdAt]
+    @Query("SELECT b.id, b.title, b.content, c.id, b.status, b.createdAt FROM Blog b LEFT JOIN b.category c " +
+            "WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Same rows plus updatedAt, for the periodic index resync; keyset on (updatedAt, id)
+    @Query("SELECT b.id, b.title, b.content, c.id, b.status, b.createdAt, b.updatedAt FROM Blog b " +
+            "LEFT JOIN b.category c WHERE b.updatedAt > :updatedAt OR (b.updatedAt = :updatedAt AND b.id > :afterId) " +
+            "ORDER BY b.updatedAt, b.id")
+    List<Object[]> findSearchRowsUpdatedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Blog b")
+    List<Long> findAllIds();
+
+    // Ranking inputs without content: [id, createdAt, viewCount, likeCount, commentCount, isFeatured]
+    @Query("SELECT b.id, b.createdAt, b.viewCount, b.likeCount, b.commentCount, b.isFeatured FROM Blog b " +
+            "WHERE b.status = :status")
+    List<Object[]> findRankingRowsByStatus(@Param("status") Blog.BlogStatus status);
+
+    // Keyset pages ordered by (createdAt, id) DESC; the "Before" variants seek past a cursor
+    @Query(SUMMARY_SELECT + "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPageByStatus(@Param("status") Blog.BlogStatus status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPageByStatusBefore(@Param("status") Blog.BlogStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE e.id = :expertId ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPageByExpertId(@Param("expertId") Long expertId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE e.id = :expertId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummaryView> findSummaryPageByExpertIdBefore(@Param("expertId") Long expertId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Moderation queue: oldest first so nothing waits forever, seeks on idx_blogs_status_created_id
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status ORDER BY b.createdAt ASC, b.id ASC")
+    List<BlogSummaryView> findQueuePageByStatus(@Param("status") Blog.BlogStatus status, Pageable pageable);
 
-    // Search by title (case-insensitive, partial match)
-    List<Blog> findByTitleContainingIgnoreCase(String title);
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status " +
+            "AND (b.createdAt > :createdAt OR (b.createdAt = :createdAt AND b.id > :id)) " +
+            "ORDER BY b.createdAt ASC, b.id ASC")
+    List<BlogSummaryView> findQueuePageByStatusAfter(@Param("status") Blog.BlogStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    // Search by title and category
-    List<Blog> findByTitleContainingIgnoreCaseAndCategoryId(String title, Long categoryId);
+    @Query("SELECT b.id FROM Blog b WHERE b.id IN :ids AND b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Blog.BlogStatus status);
 
-    // Search by title and status
-    List<Blog> findByTitleContainingIgnoreCaseAndStatus(String title, Blog.BlogStatus status);
+    // Set-based status change; the "from" guard keeps it safe against a concurrent moderator
+    @Modifying
+    @Query("UPDATE Blog b SET b.status = :to, b.updatedAt = :now WHERE b.id IN :ids AND b.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") Blog.BlogStatus from,
+            @Param("to") Blog.BlogStatus to, @Param("now") LocalDateTime now);
 
-    // Search by category and status
-    List<Blog> findByCategoryIdAndStatus(Long categoryId, Blog.BlogStatus status);
+    // Blogs still missing write-time summary fields (rows created before they existed)
+    List<Blog> findTop100ByExcerptIsNull();
 
-    // Search by title, category and status
-    List<Blog> findByTitleContainingIgnoreCaseAndCategoryIdAndStatus(
-            String title, Long categoryId, Blog.BlogStatus status);
+    @Modifying
+    @Query("UPDATE Blog b SET b.excerpt = :excerpt, b.readingTimeMinutes = :readingTime, " +
+            "b.coverImageUrl = :coverImageUrl WHERE b.id = :id")
+    int updateSummaryFields(@Param("id") Long id, @Param("excerpt") String excerpt,
+            @Param("readingTime") Integer readingTime, @Param("coverImageUrl") String coverImageUrl);
 
     // Search by category name (using JOIN)
     @Query("SELECT b FROM Blog b JOIN b.category c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :categoryName, '%'))")
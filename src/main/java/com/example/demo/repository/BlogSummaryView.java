@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Blog;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card columns of a blog, selected by {@link BlogRepository#SUMMARY_SELECT}.
+ * Never includes content or image_urls.
+ */
+public interface BlogSummaryView {
+    Long getId();
+
+    String getTitle();
+
+    String getSlug();
+
+    String getExcerpt();
+
+    String getCoverImageUrl();
+
+    Integer getReadingTimeMinutes();
+
+    Integer getViewCount();
+
+    Long getLikeCount();
+
+    Long getCommentCount();
+
+    Boolean getIsFeatured();
+
+    Blog.BlogStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getExpertId();
+
+    Long getExpertUserId();
+
+    String getExpertName();
+
+    Long getAuthorId();
+
+    String getAuthorName();
+}
@@ -4,8 +4,12 @@ import com.example.demo.entity.Comment;
 import com.example.demo.entity.CommentLike;
 import com.example.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +19,12 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
     long countByComment(Comment comment);
 
     boolean existsByUserAndComment(User user, Comment comment);
+
+    // Rows of [commentId, likeCount] for a page of comments
+    @Query("SELECT cl.comment.id, COUNT(cl) FROM CommentLike cl WHERE cl.comment.id IN :commentIds " +
+            "GROUP BY cl.comment.id")
+    List<Object[]> countByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    @Query("SELECT cl.comment.id FROM CommentLike cl WHERE cl.user.id = :userId AND cl.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
 }
@@ -2,9 +2,14 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Blog;
 import com.example.demo.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +17,39 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByBlogOrderByCreatedAtDesc(Blog blog);
 
     long countByBlog(Blog blog);
+
+    // Keyset pages of every comment on a blog, newest first
+    @Query("SELECT c FROM Comment c WHERE c.blog.id = :blogId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.blog.id = :blogId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByBlogIdBefore(@Param("blogId") Long blogId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    // Keyset pages of top-level comments only, newest first
+    @Query("SELECT c FROM Comment c WHERE c.blog.id = :blogId AND c.parentId IS NULL " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRootPageByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.blog.id = :blogId AND c.parentId IS NULL " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRootPageByBlogIdBefore(@Param("blogId") Long blogId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Keyset pages of the replies to a comment, oldest first so a thread reads top-down
+    @Query("SELECT c FROM Comment c WHERE c.parentId = :parentId ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findReplyPage(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.parentId = :parentId " +
+            "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findReplyPageAfter(@Param("parentId") Long parentId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    // Rows of [parentId, replyCount] for a page of root comments
+    @Query("SELECT c.parentId, COUNT(c) FROM Comment c WHERE c.parentId IN :parentIds GROUP BY c.parentId")
+    List<Object[]> countRepliesByParentIds(@Param("parentIds") Collection<Long> parentIds);
 }
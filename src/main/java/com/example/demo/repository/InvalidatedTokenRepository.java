@@ -2,8 +2,29 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.InvalidatedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+    // Tokens that can still be presented, i.e. the ones worth keeping in memory
+    List<InvalidatedToken> findByExpiryTimeAfter(Date now);
+
+    List<InvalidatedToken> findByRevokedAtAfter(Date since);
+
+    // INSERT IGNORE on the primary key: returns 1 only for the first revocation of a jti
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO invalidated_tokens (id, expiry_time, revoked_at) " +
+            "VALUES (:id, :expiryTime, :revokedAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("expiryTime") Date expiryTime,
+            @Param("revokedAt") Date revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM InvalidatedToken t WHERE t.expiryTime < :now")
+    int deleteExpired(@Param("now") Date now);
 }
@@ -2,9 +2,16 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     java.util.Optional<Role> findByName(String name);
+
+    // Whole catalog in one query, for RoleCatalog
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions")
+    List<Role> findAllWithPermissions();
 }
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+/**
+ * Display columns of a user, selected by {@link UserRepository#findSummariesByIdIn}.
+ */
+public interface UserSummaryView {
+    Long getId();
+
+    String getUsername();
+
+    String getFullName();
+
+    String getEmail();
+
+    String getAvatarUrl();
+}
@@ -1,28 +1,68 @@
 package com.example.demo.service;
 
+import com.example.demo.component.AiUsageMeter;
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.component.LlmConcurrencyLimiter;
+import com.example.demo.component.LlmGateway;
+import com.example.demo.component.LlmRoutes;
 import com.example.demo.entity.AiChatLog;
-import com.example.demo.entity.User;
+import com.example.demo.exception.AppException;
 import com.example.demo.repository.AiChatLogRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
 public class AiChatService {
+        public static final String FALLBACK_RESPONSE = "Xin lỗi, hiện tại mình đang gặp chút gián đoạn trong kết nối. Bạn hãy thử lại sau ít phút nhé. ❤️";
 
         private final ChatClient chatClient;
         private final AiChatLogRepository aiChatLogRepository;
         private final UserRepository userRepository;
+        private final CurrentUserResolver currentUserResolver;
+        private final ChatMemory chatMemory;
+        private final LlmGateway llmGateway;
+        private final AiUsageMeter aiUsageMeter;
+        private final LlmRoutes llmRoutes;
+        private final TransactionTemplate transactionTemplate;
+        private final MeterRegistry meterRegistry;
+        private final Duration streamTimeout;
 
         public AiChatService(ChatClient.Builder builder, AiChatLogRepository aiChatLogRepository,
-                        UserRepository userRepository) {
+                        UserRepository userRepository, CurrentUserResolver currentUserResolver,
+                        ChatMemory chatMemory, LlmGateway llmGateway, AiUsageMeter aiUsageMeter, LlmRoutes llmRoutes,
+                        TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                        @Value("${ai.chat.stream-timeout:PT2M}") Duration streamTimeout) {
                 this.aiChatLogRepository = aiChatLogRepository;
                 this.userRepository = userRepository;
+                this.currentUserResolver = currentUserResolver;
+                this.chatMemory = chatMemory;
+                this.llmGateway = llmGateway;
+                this.aiUsageMeter = aiUsageMeter;
+                this.llmRoutes = llmRoutes;
+                this.transactionTemplate = transactionTemplate;
+                this.meterRegistry = meterRegistry;
+                this.streamTimeout = streamTimeout;
                 this.chatClient = builder
                                 .defaultSystem("Bạn là Trợ lý Calmistry, một chuyên gia tâm lý ảo thân thiện, thấu cảm và điềm đạm. "
                                                 +
@@ -34,41 +74,246 @@ public class AiChatService {
 
         public String chat(String message) {
                 log.info("📧 Sending message to AI: {}", message);
+                Long userId = currentUserResolver.getUserId();
+                // Over quota is a 429 for the client, not the apology text
+                aiUsageMeter.checkQuota(userId, currentUserResolver.getPlan());
+                long start = System.nanoTime();
                 String aiResponse;
+                AiUsageMeter.CallUsage usage = null;
                 try {
-                        aiResponse = chatClient.prompt()
-                                        .user(message)
-                                        .call()
-                                        .content();
+                        List<Message> context = chatMemory.contextFor(userId, message);
+                        LlmRoutes.ModelProfile profile = llmRoutes.profile(LlmRoutes.Route.CHAT);
+                        ChatResponse response = llmGateway.call(LlmConcurrencyLimiter.Lane.INTERACTIVE,
+                                        () -> chatClient.prompt()
+                                                        .options(profile.toOptions())
+                                                        .messages(context)
+                                                        .user(message)
+                                                        .call()
+                                                        .chatResponse());
+                        llmRoutes.record(LlmRoutes.Route.CHAT, profile.model(), "success", start);
+                        aiResponse = response.getResult().getOutput().getContent();
+                        usage = usageOf(response, context, message, aiResponse, start);
+                        aiUsageMeter.record(userId, LlmRoutes.Route.CHAT.getKey(), usage);
                 } catch (Exception e) {
+                        llmRoutes.record(LlmRoutes.Route.CHAT, llmRoutes.profile(LlmRoutes.Route.CHAT).model(), "error",
+                                        start);
                         log.error("❌ AI Chat Error: ", e);
-                        aiResponse = "Xin lỗi, hiện tại mình đang gặp chút gián đoạn trong kết nối. Bạn hãy thử lại sau ít phút nhé. ❤️";
+                        aiResponse = FALLBACK_RESPONSE;
                 }
+                // Blocking mode: the first token reaches the client together with the last one
+                recordTimeToFirstToken("blocking", start);
 
                 // Persist the log if user is authenticated
-                final String finalResponse = aiResponse;
+                saveLog(userId, message, aiResponse, usage);
+
+                return aiResponse;
+        }
+
+        /**
+         * One completion with the assistant persona and the route's model profile,
+         * no fallback text, no chat log and no conversation memory.
+         * For background jobs that retry on failure themselves. Hedged, these
+         * prompts have no side effects. If the route's own model fails, the
+         * primary model is tried once before giving up.
+         */
+        public String generate(LlmRoutes.Route route, String prompt) {
+                return generate(route, prompt, LlmConcurrencyLimiter.Lane.BACKGROUND);
+        }
+
+        /**
+         * {@link #generate(LlmRoutes.Route, String)} for a caller a user is waiting on.
+         */
+        public String generate(LlmRoutes.Route route, String prompt, LlmConcurrencyLimiter.Lane lane) {
+                LlmRoutes.ModelProfile profile = llmRoutes.profile(route);
                 try {
-                        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-                        if (username != null && !username.equals("anonymousUser")) {
-                                userRepository.findByUsername(username).ifPresent(user -> {
-                                        AiChatLog logEntry = new AiChatLog();
-                                        logEntry.setUser(user);
-                                        logEntry.setUserMessage(message);
-                                        logEntry.setAiResponse(finalResponse);
-                                        aiChatLogRepository.save(logEntry);
-                                });
+                        return generate(route, profile, prompt, lane);
+                } catch (AppException e) {
+                        // Circuit open / no slot: the primary model sits behind the same gateway
+                        throw e;
+                } catch (RuntimeException e) {
+                        if (profile.model().equals(llmRoutes.getPrimaryModel())) {
+                                throw e;
                         }
+                        log.warn("⚠️ Model {} failed for {}, falling back to {}: {}", profile.model(), route.getKey(),
+                                        llmRoutes.getPrimaryModel(), e.getMessage());
+                        llmRoutes.recordFallback(route, profile.model());
+                        return generate(route, profile.withModel(llmRoutes.getPrimaryModel()), prompt, lane);
+                }
+        }
+
+        private String generate(LlmRoutes.Route route, LlmRoutes.ModelProfile profile, String prompt,
+                        LlmConcurrencyLimiter.Lane lane) {
+                long start = System.nanoTime();
+                ChatResponse response;
+                try {
+                        response = llmGateway.callIdempotent(lane, profile.timeout(), () -> chatClient.prompt()
+                                        .options(profile.toOptions())
+                                        .user(prompt)
+                                        .call()
+                                        .chatResponse());
+                } catch (RuntimeException e) {
+                        llmRoutes.record(route, profile.model(), "error", start);
+                        throw e;
+                }
+                llmRoutes.record(route, profile.model(), "success", start);
+                String content = response.getResult().getOutput().getContent();
+                // Not tied to a user: only feeds the metrics
+                aiUsageMeter.record(null, route.getKey(), usageOf(response, List.of(), prompt, content, start));
+                return content;
+        }
+
+        /**
+         * Same conversation as {@link #chat(String)}, but tokens are pushed to the
+         * client as SSE "token" events as soon as the model produces them. The full
+         * text is persisted once the stream completes, then a "done" event closes it.
+         * If the client goes away, the upstream completion is cancelled.
+         */
+        public SseEmitter chatStream(String message) {
+                log.info("📧 Streaming message to AI: {}", message);
+                // Read on the request thread, the stream callbacks run without a security context
+                Long userId = currentUserResolver.getUserId();
+                try {
+                        aiUsageMeter.checkQuota(userId, currentUserResolver.getPlan());
+                } catch (AppException e) {
+                        // The response is already an event stream, report it as an event
+                        SseEmitter rejected = new SseEmitter();
+                        send(rejected, "error", e.getMessage());
+                        rejected.complete();
+                        return rejected;
+                }
+                long start = System.nanoTime();
+                List<Message> context = chatMemory.contextFor(userId, message);
+
+                SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+                StringBuilder fullResponse = new StringBuilder();
+                AtomicBoolean firstToken = new AtomicBoolean(true);
+                AtomicReference<Disposable> subscription = new AtomicReference<>();
+
+                LlmRoutes.ModelProfile profile = llmRoutes.profile(LlmRoutes.Route.CHAT);
+                Disposable disposable = llmGateway.stream(() -> chatClient.prompt()
+                                .options(profile.toOptions())
+                                .messages(context)
+                                .user(message)
+                                .stream()
+                                .content())
+                                // Client left mid-answer: keep the part that was generated
+                                .doOnCancel(() -> saveStreamed(userId, context, message, fullResponse.toString(), start))
+                                .subscribe(token -> {
+                                        if (firstToken.compareAndSet(true, false)) {
+                                                recordTimeToFirstToken("stream", start);
+                                        }
+                                        fullResponse.append(token);
+                                        if (!send(emitter, "token", token)) {
+                                                cancel(subscription);
+                                        }
+                                }, error -> {
+                                        log.error("❌ AI Chat stream error: ", error);
+                                        // Keep what was already shown, or the usual apology if nothing was
+                                        if (fullResponse.isEmpty()) {
+                                                saveLog(userId, message, FALLBACK_RESPONSE, null);
+                                        } else {
+                                                saveStreamed(userId, context, message, fullResponse.toString(), start);
+                                        }
+                                        send(emitter, "error", FALLBACK_RESPONSE);
+                                        emitter.complete();
+                                }, () -> {
+                                        meterRegistry.timer("ai.chat.duration", "mode", "stream")
+                                                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                        saveStreamed(userId, context, message, fullResponse.toString(), start);
+                                        send(emitter, "done", "");
+                                        emitter.complete();
+                                });
+                subscription.set(disposable);
+
+                emitter.onTimeout(() -> cancel(subscription));
+                emitter.onError(error -> cancel(subscription));
+                return emitter;
+        }
+
+        public Page<AiChatLog> getChatHistory(Pageable pageable) {
+                return aiChatLogRepository.findByUserIdOrderByCreatedAtDesc(currentUserResolver.requireUserId(),
+                                pageable);
+        }
+
+        // Streamed chunks carry no usage, so the tokens of a stream are estimated locally
+        private void saveStreamed(Long userId, List<Message> context, String message, String response,
+                        long startNanos) {
+                AiUsageMeter.CallUsage usage = estimatedUsage(context, message, response, startNanos);
+                aiUsageMeter.record(userId, LlmRoutes.Route.CHAT.getKey() + "-stream", usage);
+                saveLog(userId, message, response, usage);
+        }
+
+        private AiUsageMeter.CallUsage usageOf(ChatResponse response, List<Message> context, String message,
+                        String answer, long startNanos) {
+                Usage usage = response.getMetadata().getUsage();
+                long promptTokens = usage != null && usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+                long completionTokens = usage != null && usage.getGenerationTokens() != null
+                                ? usage.getGenerationTokens()
+                                : 0;
+                if (promptTokens == 0 && completionTokens == 0) {
+                        // Provider did not report usage
+                        return estimatedUsage(context, message, answer, startNanos);
+                }
+                return new AiUsageMeter.CallUsage(promptTokens, completionTokens, elapsedMillis(startNanos));
+        }
+
+        private AiUsageMeter.CallUsage estimatedUsage(List<Message> context, String message, String answer,
+                        long startNanos) {
+                long promptTokens = TokenEstimator.estimateMessage(message);
+                for (Message contextMessage : context) {
+                        promptTokens += TokenEstimator.estimateMessage(contextMessage.getContent());
+                }
+                return new AiUsageMeter.CallUsage(promptTokens, TokenEstimator.estimate(answer),
+                                elapsedMillis(startNanos));
+        }
+
+        private long elapsedMillis(long startNanos) {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        private void saveLog(Long userId, String message, String response, AiUsageMeter.CallUsage usage) {
+                if (userId == null) {
+                        return;
+                }
+                try {
+                        // Own transaction so the user reference is managed, also on stream threads
+                        transactionTemplate.executeWithoutResult(status -> {
+                                AiChatLog logEntry = new AiChatLog();
+                                logEntry.setUser(userRepository.getReferenceById(userId));
+                                logEntry.setUserMessage(message);
+                                logEntry.setAiResponse(response);
+                                if (usage != null) {
+                                        logEntry.setPromptTokens((int) usage.promptTokens());
+                                        logEntry.setCompletionTokens((int) usage.completionTokens());
+                                        logEntry.setLatencyMs((int) usage.latencyMillis());
+                                }
+                                aiChatLogRepository.save(logEntry);
+                        });
                 } catch (Exception e) {
                         log.error("❌ Failed to save AI Chat log: ", e);
                 }
+        }
 
-                return aiResponse;
+        private boolean send(SseEmitter emitter, String event, String data) {
+                try {
+                        emitter.send(SseEmitter.event().name(event).data(data));
+                        return true;
+                } catch (IOException | IllegalStateException e) {
+                        // Client disconnected or emitter already completed
+                        log.debug("AI Chat stream closed by client: {}", e.getMessage());
+                        return false;
+                }
         }
 
-        public Page<AiChatLog> getChatHistory(Pageable pageable) {
-                String username = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByUsername(username)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
-                return aiChatLogRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), pageable);
+        private void cancel(AtomicReference<Disposable> subscription) {
+                Disposable disposable = subscription.get();
+                if (disposable != null) {
+                        disposable.dispose();
+                }
+        }
+
+        private void recordTimeToFirstToken(String mode, long startNanos) {
+                meterRegistry.timer("ai.chat.ttft", "mode", mode)
+                                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
         }
 }
@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.component.LlmConcurrencyLimiter;
+import com.example.demo.component.LlmRoutes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches model answers for prompts whose answer does not depend on who asks,
+ * keyed by (use case, hash of the normalized prompt).
+ * <p>
+ * Each use case has its own bounded Caffeine cache; TTL and size come from
+ * ai.cache.&lt;use-case&gt;.ttl / max-size. Concurrent misses for the same key
+ * are collapsed into one model call (Caffeine computes a key once and the other
+ * callers wait for it). Failed calls are not cached.
+ */
+@Slf4j
+@Component
+public class AiResponseCache {
+    private final AiChatService aiChatService;
+    private final Map<UseCase, Cache<String, String>> caches = new EnumMap<>(UseCase.class);
+
+    @Getter
+    public enum UseCase {
+        DAILY_PROMPT("daily-prompt", LlmRoutes.Route.DAILY_PROMPT, Duration.ofHours(24), 16),
+        JOURNAL_STATS("journal-stats", LlmRoutes.Route.JOURNAL_STATS, Duration.ofHours(6), 10_000);
+
+        private final String key;
+        private final LlmRoutes.Route route;
+        private final Duration defaultTtl;
+        private final long defaultMaxSize;
+
+        UseCase(String key, LlmRoutes.Route route, Duration defaultTtl, long defaultMaxSize) {
+            this.key = key;
+            this.route = route;
+            this.defaultTtl = defaultTtl;
+            this.defaultMaxSize = defaultMaxSize;
+        }
+    }
+
+    public AiResponseCache(AiChatService aiChatService, MeterRegistry meterRegistry, Environment environment) {
+        this.aiChatService = aiChatService;
+        for (UseCase useCase : UseCase.values()) {
+            String prefix = "ai.cache." + useCase.getKey();
+            Cache<String, String> cache = Caffeine.newBuilder()
+                    .maximumSize(environment.getProperty(prefix + ".max-size", Long.class, useCase.getDefaultMaxSize()))
+                    .expireAfterWrite(environment.getProperty(prefix + ".ttl", Duration.class, useCase.getDefaultTtl()))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "ai.response." + useCase.getKey());
+            caches.put(useCase, cache);
+        }
+    }
+
+    /**
+     * Cached answer for the prompt, calling the model on a miss. Empty when the
+     * model call failed; the caller decides on the fallback text.
+     */
+    public Optional<String> get(UseCase useCase, String prompt) {
+        try {
+            // Someone is waiting on the answer (stats page, prompt before the pool is filled)
+            return Optional.ofNullable(caches.get(useCase).get(keyOf(prompt),
+                    key -> aiChatService.generate(useCase.getRoute(), prompt, LlmConcurrencyLimiter.Lane.INTERACTIVE)));
+        } catch (RuntimeException e) {
+            log.error("❌ AI call for {} failed: {}", useCase, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Whitespace and case differences do not change the answer we want
+    private String keyOf(String prompt) {
+        String normalized = prompt.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
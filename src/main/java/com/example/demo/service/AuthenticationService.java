@@ -2,9 +2,15 @@ package com.example.demo.service;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.component.GoogleTokenVerifier;
+import com.example.demo.component.PasswordHasher;
+import com.example.demo.component.RoleCatalog;
+import com.example.demo.component.RevokedTokenStore;
 import com.example.demo.dto.request.AuthenticationRequest;
 import com.example.demo.dto.request.GoogleLoginRequest;
 import com.example.demo.dto.request.IntrospectRequest;
+import com.example.demo.dto.request.RefreshRequest;
 import com.example.demo.dto.request.UserRegistrationRequest;
 import com.example.demo.dto.response.AuthenticationResponse;
 import com.example.demo.dto.response.IntrospectResponse;
@@ -15,13 +21,9 @@ import com.example.demo.entity.User;
 import com.example.demo.entity.UserPlan;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
-import com.example.demo.repository.InvalidatedTokenRepository;
-import com.example.demo.repository.RoleRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.PlanUtil;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
@@ -33,20 +35,15 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.text.ParseException;
-import java.io.IOException;
-import java.security.GeneralSecurityException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
 import java.util.Date;
-import java.util.StringJoiner;
 import java.util.UUID;
 
 @Slf4j
@@ -55,10 +52,12 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationService {
     final UserRepository userRepository;
-    final RoleRepository roleRepository;
-    final InvalidatedTokenRepository invalidatedTokenRepository;
-    final PasswordEncoder passwordEncoder;
+    final RoleCatalog roleCatalog;
+    final RevokedTokenStore revokedTokenStore;
+    final PasswordHasher passwordHasher;
     final GamificationService gamificationService;
+    final GoogleTokenVerifier googleTokenVerifier;
+    final TransactionTemplate transactionTemplate;
 
     @NonFinal
     @Value("${jwt.signerKey}")
@@ -72,10 +71,6 @@ public class AuthenticationService {
     @Value("${jwt.refreshable-duration}")
     protected long REFRESHABLE_DURATION;
 
-    @NonFinal
-    @Value("${google.client-id}")
-    protected String GOOGLE_CLIENT_ID;
-
     @NonFinal
     protected final String GRANT_TYPE = "authorization_code";
 
@@ -93,12 +88,16 @@ public class AuthenticationService {
     }
 
     /**
-     * Register a new user
+     * Register a new user. BCrypt runs before the transaction (and before any
+     * query), so no pooled connection is held while waiting for the hashing pool.
      */
-    @Transactional
     public UserRegistrationResponse registerUser(UserRegistrationRequest request) {
         log.info("👤 Registering new user with email: {}", request.getEmail());
+        String encodedPassword = passwordHasher.encode(request.getPassword());
+        return transactionTemplate.execute(status -> createUser(request, encodedPassword));
+    }
 
+    private UserRegistrationResponse createUser(UserRegistrationRequest request, String encodedPassword) {
         // Check if email already exists (primary login credential)
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new AppException(ErrorCode.USER_EXISTED);
@@ -107,7 +106,7 @@ public class AuthenticationService {
         // Create new user
         User newUser = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .email(request.getEmail())
                 .fullName(request.getFullName())
                 .phoneNumber(request.getPhoneNumber())
@@ -119,7 +118,7 @@ public class AuthenticationService {
         User savedUser = userRepository.save(newUser);
 
         // Assign default USER role
-        Role userRole = roleRepository.findByName("USER")
+        Role userRole = roleCatalog.findReference("USER")
                 .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
         savedUser.getRoles().add(userRole);
 
@@ -137,7 +136,10 @@ public class AuthenticationService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Not transactional: the password check waits for the hashing pool, only the
+     * writes after it (daily spin, last login) run in a transaction.
+     */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         log.info("🔐 [Login] Attempting authentication for email: {}", request.getEmail());
 
@@ -149,7 +151,8 @@ public class AuthenticationService {
 
         log.info("✅ [Login] User found: {}, roles: {}", user.getUsername(), user.getRoles().size());
 
-        boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        // Timed as auth.password.verify, so the BCrypt cost of logins (vs. cheap refreshes) is visible
+        boolean authenticated = passwordHasher.matches(request.getPassword(), user.getPassword());
         log.info("🔑 [Login] Password match: {}", authenticated);
 
         if (!authenticated) {
@@ -158,9 +161,14 @@ public class AuthenticationService {
         }
 
         log.info("🎫 [Login] Generating token for user: {}", user.getUsername());
+        AuthenticationResponse response = transactionTemplate.execute(status -> completeLogin(user));
+        log.info("✅ [Login] Authentication successful for: {}", user.getUsername());
+        return response;
+    }
+
+    private AuthenticationResponse completeLogin(User user) {
         var token = generateToken(user);
         awardDailyLoginSpinIfEligible(user);
-        log.info("✅ [Login] Authentication successful for: {}", user.getUsername());
 
         return AuthenticationResponse.builder()
                 .token(token)
@@ -186,12 +194,7 @@ public class AuthenticationService {
         SignedJWT signedJWT = SignedJWT.parse(token);
 
         Date expiryTime = (isRefresh)
-                ? new Date(signedJWT
-                        .getJWTClaimsSet()
-                        .getIssueTime()
-                        .toInstant()
-                        .plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS)
-                        .toEpochMilli())
+                ? refreshableUntil(signedJWT.getJWTClaimsSet())
                 : signedJWT.getJWTClaimsSet().getExpirationTime();
 
         var verified = signedJWT.verify(verifier);
@@ -199,13 +202,50 @@ public class AuthenticationService {
         if (!verified || expiryTime.before(new Date()))
             throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
+        // Rare endpoints: read the table rather than wait for other instances' logouts to be refreshed
+        if (revokedTokenStore.isRevokedNow(signedJWT.getJWTClaimsSet().getJWTID()))
             throw new AppException(ErrorCode.UNAUTHENTICATED);
 
         return signedJWT;
 
     }
 
+    // Last moment a token can be exchanged on /auth/refresh
+    private Date refreshableUntil(JWTClaimsSet claims) {
+        return new Date(claims.getIssueTime()
+                .toInstant()
+                .plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS)
+                .toEpochMilli());
+    }
+
+    /**
+     * Exchange a (possibly expired) token inside its refreshable window for a new
+     * one, without a password check. The old JTI is revoked in the same step, so
+     * a token can be refreshed once; a replay or a concurrent duplicate is rejected.
+     */
+    @Transactional
+    public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
+        JWTClaimsSet claims = verifyToken(request.getToken(), true).getJWTClaimsSet();
+
+        if (!revokedTokenStore.revokeIfAbsent(claims.getJWTID(), refreshableUntil(claims))) {
+            log.warn("⚠️ [Refresh] Token {} was already rotated", claims.getJWTID());
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        // Reload the user so roles and plan in the new token are current
+        Object userId = claims.getClaim(CurrentUserResolver.USER_ID_CLAIM);
+        User user = (userId instanceof Number number
+                ? userRepository.findById(number.longValue())
+                : userRepository.findByUsername(claims.getSubject()))
+                .orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
+
+        return AuthenticationResponse.builder()
+                .token(generateToken(user))
+                .authenticated(true)
+                .isOnboarded(user.getIsOnboarded() != null && user.getIsOnboarded())
+                .build();
+    }
+
     private String generateToken(User user) {
         JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
 
@@ -217,6 +257,9 @@ public class AuthenticationService {
                         Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()))
                 .jwtID(UUID.randomUUID().toString())
                 .claim("scope", buildScope(user))
+                // Lets CurrentUserResolver answer "who / which plan" without a user lookup
+                .claim(CurrentUserResolver.USER_ID_CLAIM, user.getId())
+                .claim(CurrentUserResolver.PLAN_CLAIM, PlanUtil.effectivePlan(user).name())
                 .build();
 
         Payload payload = new Payload(jwtClaimsSet.toJSONObject());
@@ -242,116 +285,94 @@ public class AuthenticationService {
             var signToken = verifyToken(request.getToken(), true);
 
             String jit = signToken.getJWTClaimsSet().getJWTID();
-            Date expiryTime = signToken.getJWTClaimsSet().getExpirationTime();
+            // Keep the row for the whole refreshable window, not just until the access expiry,
+            // otherwise a logged-out token could still be refreshed after the purge
+            Date expiryTime = refreshableUntil(signToken.getJWTClaimsSet());
 
-            com.example.demo.entity.InvalidatedToken invalidatedToken = com.example.demo.entity.InvalidatedToken
-                    .builder()
-                    .id(jit)
-                    .expiryTime(expiryTime)
-                    .build();
-
-            invalidatedTokenRepository.save(invalidatedToken);
+            revokedTokenStore.revoke(jit, expiryTime);
         } catch (AppException e) {
             log.info("Token already expired or invalid");
         }
     }
 
     /**
-     * Authenticate with Google ID Token
+     * Authenticate with Google ID Token. The placeholder password of a new
+     * account is hashed before the transaction starts.
      */
-    @Transactional
     public AuthenticationResponse authenticateWithGoogle(GoogleLoginRequest request) {
         log.info("🔐 [Google Login] Verifying Google ID token...");
 
-        try {
-            // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(GOOGLE_CLIENT_ID))
-                    .build();
+        // Verify Google ID token (shared verifier, cached signing keys)
+        GoogleIdToken.Payload payload = googleTokenVerifier.verify(request.getIdToken());
+        String email = payload.getEmail();
+        String fullName = (String) payload.get("name");
 
-            GoogleIdToken idToken = verifier.verify(request.getIdToken());
-            if (idToken == null) {
-                log.error("❌ [Google Login] Invalid Google ID token");
-                throw new AppException(ErrorCode.INVALID_CREDENTIALS);
-            }
+        log.info("✅ [Google Login] Token verified. Email: {}, Name: {}", email, fullName);
 
-            GoogleIdToken.Payload payload = idToken.getPayload();
-            String googleId = payload.getSubject();
-            String email = payload.getEmail();
-            String fullName = (String) payload.get("name");
-            String pictureUrl = (String) payload.get("picture");
-
-            log.info("✅ [Google Login] Token verified. Email: {}, Name: {}", email, fullName);
-
-            // Find existing user by googleId or email
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user == null) {
-                // Create new user from Google account
-                log.info("👤 [Google Login] Creating new user for: {}", email);
-                user = User.builder()
-                        .username(email) // Use email as username
-                        .email(email)
-                        .fullName(fullName)
-                        .password(passwordEncoder.encode(UUID.randomUUID().toString())) // Google users don't use password login
-                        .googleId(googleId)
-                        .avatarUrl(pictureUrl)
-                        .createdAt(LocalDateTime.now())
-                        .plan(UserPlan.SILVER)
-                        .build();
-
-                User savedUser = userRepository.save(user);
-
-                // Assign default USER role
-                Role userRole = roleRepository.findByName("USER")
-                        .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
-                savedUser.getRoles().add(userRole);
-                user = userRepository.save(savedUser);
-
-                log.info("✅ [Google Login] New user created with email: {}", email);
-            } else {
-                // Update Google info if needed
-                if (user.getGoogleId() == null) {
-                    user.setGoogleId(googleId);
-                }
-                if (pictureUrl != null) {
-                    user.setAvatarUrl(pictureUrl);
-                }
-                user = userRepository.save(user);
-                log.info("✅ [Google Login] Existing user found: {}", email);
-            }
+        // Google users don't use password login, only new accounts need a (random) hash
+        String placeholderPassword = userRepository.findByEmail(email).isPresent()
+                ? null
+                : passwordHasher.encode(UUID.randomUUID().toString());
 
-            // Generate JWT token
-            var token = generateToken(user);
-            awardDailyLoginSpinIfEligible(user);
+        return transactionTemplate.execute(status -> {
+            User user = upsertGoogleUser(payload, placeholderPassword);
+            AuthenticationResponse response = completeLogin(user);
             log.info("🎫 [Google Login] JWT generated for: {}", user.getUsername());
+            return response;
+        });
+    }
 
-            return AuthenticationResponse.builder()
-                    .token(token)
-                    .authenticated(true)
-                    .isOnboarded(user.getIsOnboarded() != null && user.getIsOnboarded())
+    private User upsertGoogleUser(GoogleIdToken.Payload payload, String placeholderPassword) {
+        String googleId = payload.getSubject();
+        String email = payload.getEmail();
+        String fullName = (String) payload.get("name");
+        String pictureUrl = (String) payload.get("picture");
+
+        // Find existing user by googleId or email
+        User user = userRepository.findByEmail(email).orElse(null);
+
+        if (user == null) {
+            // Create new user from Google account
+            log.info("👤 [Google Login] Creating new user for: {}", email);
+            user = User.builder()
+                    .username(email) // Use email as username
+                    .email(email)
+                    .fullName(fullName)
+                    .password(placeholderPassword != null
+                            ? placeholderPassword
+                            : passwordHasher.encode(UUID.randomUUID().toString()))
+                    .googleId(googleId)
+                    .avatarUrl(pictureUrl)
+                    .createdAt(LocalDateTime.now())
+                    .plan(UserPlan.SILVER)
                     .build();
 
-        } catch (GeneralSecurityException | IOException e) {
-            log.error("❌ [Google Login] Error verifying token: {}", e.getMessage());
-            throw new AppException(ErrorCode.INVALID_CREDENTIALS);
+            User savedUser = userRepository.save(user);
+
+            // Assign default USER role
+            Role userRole = roleCatalog.findReference("USER")
+                    .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
+            savedUser.getRoles().add(userRole);
+            user = userRepository.save(savedUser);
+
+            log.info("✅ [Google Login] New user created with email: {}", email);
+        } else {
+            // Update Google info if needed
+            if (user.getGoogleId() == null) {
+                user.setGoogleId(googleId);
+            }
+            if (pictureUrl != null) {
+                user.setAvatarUrl(pictureUrl);
+            }
+            user = userRepository.save(user);
+            log.info("✅ [Google Login] Existing user found: {}", email);
         }
+        return user;
     }
 
     private String buildScope(User user) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
-
-        if (!CollectionUtils.isEmpty(user.getRoles()))
-            user.getRoles().forEach(role -> {
-                stringJoiner.add("ROLE_" + role.getName());
-                if (!CollectionUtils.isEmpty(role.getPermissions()))
-                    role.getPermissions().forEach(permission -> {
-                        stringJoiner.add(permission.getName());
-                    });
-
-            });
-        return stringJoiner.toString();
+        // Precomputed per role, no permission queries
+        return roleCatalog.scopeOf(user.getRoles());
     }
 
 }
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.dto.response.CategoryResponse;
+import com.example.demo.repository.BlogCategoryRepository;
+import com.example.demo.repository.BlogRepository;
+import com.example.demo.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded read-through caches in front of the blog detail, slug and category lookups.
+ * <p>
+ * Only the shared part of a blog response is cached (stored counters, no isLiked);
+ * {@link BlogFeedAssembler#personalize(BlogResponse)} adds the per-request fields.
+ * Writes evict after commit so a concurrent reader cannot re-cache the old row.
+ * Counter flushes evict the flushed blogs too: once a delta is in the columns it
+ * no longer counts as pending, so a cached copy of the old columns would make
+ * the like / comment / view counts go backwards until it expired.
+ * Hit / miss / eviction metrics are published as cache.* meters tagged by cache name.
+ */
+@Component
+public class BlogCache {
+    private static final String CATEGORIES_KEY = "all";
+
+    private final BlogRepository blogRepository;
+    private final BlogCategoryRepository blogCategoryRepository;
+    private final BlogFeedAssembler blogFeedAssembler;
+
+    private final Cache<Long, BlogResponse> blogsById;
+    private final Cache<String, Long> idsBySlug;
+    private final Cache<String, List<CategoryResponse>> categories;
+
+    public BlogCache(BlogRepository blogRepository, BlogCategoryRepository blogCategoryRepository,
+            BlogFeedAssembler blogFeedAssembler, BlogCounterBuffer blogCounterBuffer,
+            BlogViewTracker blogViewTracker, MeterRegistry meterRegistry,
+            @Value("${blog.cache.max-size:2000}") long maxSize,
+            @Value("${blog.cache.detail-ttl:PT2M}") Duration detailTtl,
+            @Value("${blog.cache.slug-ttl:PT30M}") Duration slugTtl,
+            @Value("${blog.cache.categories-ttl:PT30M}") Duration categoriesTtl) {
+        this.blogRepository = blogRepository;
+        this.blogCategoryRepository = blogCategoryRepository;
+        this.blogFeedAssembler = blogFeedAssembler;
+
+        this.blogsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(detailTtl)
+                .recordStats()
+                .build();
+        this.idsBySlug = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(slugTtl)
+                .recordStats()
+                .build();
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(categoriesTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, blogsById, "blog.detail");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsBySlug, "blog.slug");
+        CaffeineCacheMetrics.monitor(meterRegistry, categories, "blog.categories");
+
+        // Slugs do not change on a flush, only the cached detail holds counters
+        blogCounterBuffer.onFlushed(blogsById::invalidateAll);
+        blogViewTracker.onFlushed(blogsById::invalidateAll);
+    }
+
+    /**
+     * Shared (not personalized) response for the blog, empty when it does not exist.
+     */
+    public Optional<BlogResponse> findById(Long id) {
+        // Missing blogs are not cached: the loader returning null leaves no entry behind
+        return Optional.ofNullable(blogsById.get(id, key -> blogRepository.findDetailById(key)
+                .map(blogFeedAssembler::toSharedResponse)
+                .orElse(null)));
+    }
+
+    public Optional<Long> findIdBySlug(String slug) {
+        return Optional.ofNullable(idsBySlug.get(slug, key -> blogRepository.findIdBySlug(key).orElse(null)));
+    }
+
+    public List<CategoryResponse> getCategories() {
+        return categories.get(CATEGORIES_KEY, key -> blogCategoryRepository.findAll().stream()
+                .map(category -> CategoryResponse.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .description(category.getDescription())
+                        .build())
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    public void evictAfterCommit(Long blogId) {
+        TransactionUtil.afterCommit(() -> evict(List.of(blogId)));
+    }
+
+    /**
+     * One eviction pass for a whole batch of blogs (bulk moderation, etc.).
+     */
+    public void evictAllAfterCommit(Collection<Long> blogIds) {
+        if (!blogIds.isEmpty()) {
+            List<Long> ids = List.copyOf(blogIds);
+            TransactionUtil.afterCommit(() -> evict(ids));
+        }
+    }
+
+    public void evictCategoriesAfterCommit() {
+        TransactionUtil.afterCommit(categories::invalidateAll);
+    }
+
+    private void evict(Collection<Long> blogIds) {
+        blogsById.invalidateAll(blogIds);
+        // The old slug of an edited / deleted blog is not known here, drop every slug pointing at it
+        idsBySlug.asMap().values().removeIf(blogIds::contains);
+    }
+}
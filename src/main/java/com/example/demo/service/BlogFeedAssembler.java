@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.dto.response.BlogSummaryResponse;
+import com.example.demo.entity.Blog;
+import com.example.demo.entity.BlogInteraction;
+import com.example.demo.entity.User;
+import com.example.demo.repository.BlogInteractionRepository;
+import com.example.demo.repository.BlogSummaryView;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a page of blogs into responses with a fixed number of queries:
+ * counts come from the denormalized columns plus not-yet-flushed deltas in
+ * {@link BlogCounterBuffer}, and the caller's liked set is one lookup per page.
+ * Blogs are expected to be loaded with {@link Blog#FEED_GRAPH}.
+ * <p>
+ * Responses are built in two steps, a shared part (cacheable) and a
+ * per-request layer added by {@link #personalize(List)}.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BlogFeedAssembler {
+    BlogInteractionRepository blogInteractionRepository;
+    BlogCounterBuffer blogCounterBuffer;
+    BlogViewTracker blogViewTracker;
+    CurrentUserResolver currentUserResolver;
+
+    public BlogResponse assemble(Blog blog) {
+        return assemble(List.of(blog)).get(0);
+    }
+
+    public List<BlogSummaryResponse> assembleSummaries(List<BlogSummaryView> summaries) {
+        if (summaries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> blogIds = summaries.stream().map(BlogSummaryView::getId).collect(Collectors.toSet());
+        Set<Long> likedBlogIds = findLikedBlogIds(blogIds);
+
+        return summaries.stream()
+                .map(summary -> toSummaryResponse(summary, likedBlogIds.contains(summary.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public List<BlogResponse> assemble(List<Blog> blogs) {
+        return personalize(blogs.stream().map(this::toSharedResponse).collect(Collectors.toList()));
+    }
+
+    public BlogResponse personalize(BlogResponse shared) {
+        return personalize(List.of(shared)).get(0);
+    }
+
+    /**
+     * Copy shared responses and layer the live parts on top: not-yet-flushed
+     * counter deltas and the caller's liked flag (one lookup for the whole list).
+     */
+    public List<BlogResponse> personalize(List<BlogResponse> shared) {
+        if (shared.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> blogIds = shared.stream().map(BlogResponse::getId).collect(Collectors.toSet());
+        Set<Long> likedBlogIds = findLikedBlogIds(blogIds);
+
+        return shared.stream()
+                .map(response -> response.toBuilder()
+                        .viewCount((int) countOf(response.getViewCount() != null
+                                ? response.getViewCount().longValue()
+                                : null, blogViewTracker.pendingViews(response.getId())))
+                        .likeCount(countOf(response.getLikeCount(), blogCounterBuffer.pendingLikes(response.getId())))
+                        .commentCount(countOf(response.getCommentCount(),
+                                blogCounterBuffer.pendingComments(response.getId())))
+                        .isLiked(likedBlogIds.contains(response.getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> findLikedBlogIds(Set<Long> blogIds) {
+        Long userId = currentUserResolver.getUserId();
+        if (userId == null) {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<>(blogInteractionRepository.findBlogIdsByUserIdAndInteractionType(
+                userId, blogIds, BlogInteraction.InteractionType.LIKE));
+    }
+
+    private long countOf(Long stored, long pending) {
+        return Math.max(0, (stored != null ? stored : 0) + pending);
+    }
+
+    /**
+     * The part of a blog response that is the same for every reader: stored
+     * counters only and isLiked = false. Safe to cache (see BlogCache).
+     */
+    public BlogResponse toSharedResponse(Blog blog) {
+        // Calculate author fallback
+        User author = blog.getAuthor();
+        if (author == null && blog.getExpert() != null) {
+            author = blog.getExpert().getUser();
+        }
+
+        return BlogResponse.builder()
+                .id(blog.getId())
+                .expertId(blog.getExpert() != null ? blog.getExpert().getId() : null)
+                .expertName(blog.getExpert() != null && blog.getExpert().getUser() != null
+                        ? blog.getExpert().getUser().getFullName()
+                        : null)
+                .categoryId(blog.getCategory() != null ? blog.getCategory().getId() : null)
+                .categoryName(blog.getCategory() != null ? blog.getCategory().getName() : null)
+                .title(blog.getTitle())
+                .slug(blog.getSlug())
+                .content(blog.getContent())
+                .excerpt(blog.getExcerpt())
+                .coverImageUrl(blog.getCoverImageUrl())
+                .readingTimeMinutes(blog.getReadingTimeMinutes())
+                .imageUrls(blog.getImageUrls())
+                .viewCount(blog.getViewCount() != null ? blog.getViewCount() : 0)
+                .likeCount(blog.getLikeCount() != null ? blog.getLikeCount() : 0L)
+                .commentCount(blog.getCommentCount() != null ? blog.getCommentCount() : 0L)
+                .isFeatured(blog.isFeatured())
+                .status(blog.getStatus())
+                .createdAt(blog.getCreatedAt())
+                .updatedAt(blog.getUpdatedAt())
+                // Set Author details with fallback
+                .authorName(author != null ? author.getFullName() : null)
+                .authorId(author != null ? author.getId() : null)
+                .authorAvatar("https://ui-avatars.com/api/?name="
+                        + (author != null ? author.getFullName() : "User"))
+                .expertUserId(blog.getExpert() != null && blog.getExpert().getUser() != null
+                        ? blog.getExpert().getUser().getId()
+                        : null)
+                .build();
+    }
+
+    private BlogSummaryResponse toSummaryResponse(BlogSummaryView summary, boolean isLiked) {
+        // Author falls back to the expert's user, as for the full response
+        Long authorId = summary.getAuthorId() != null ? summary.getAuthorId() : summary.getExpertUserId();
+        String authorName = summary.getAuthorId() != null ? summary.getAuthorName() : summary.getExpertName();
+        Long viewCount = summary.getViewCount() != null ? summary.getViewCount().longValue() : null;
+
+        return BlogSummaryResponse.builder()
+                .id(summary.getId())
+                .expertId(summary.getExpertId())
+                .expertName(summary.getExpertName())
+                .expertUserId(summary.getExpertUserId())
+                .categoryId(summary.getCategoryId())
+                .categoryName(summary.getCategoryName())
+                .title(summary.getTitle())
+                .slug(summary.getSlug())
+                .excerpt(summary.getExcerpt())
+                .coverImageUrl(summary.getCoverImageUrl())
+                .readingTimeMinutes(summary.getReadingTimeMinutes())
+                .viewCount((int) countOf(viewCount, blogViewTracker.pendingViews(summary.getId())))
+                .likeCount(countOf(summary.getLikeCount(), blogCounterBuffer.pendingLikes(summary.getId())))
+                .commentCount(countOf(summary.getCommentCount(), blogCounterBuffer.pendingComments(summary.getId())))
+                .isLiked(isLiked)
+                .isFeatured(Boolean.TRUE.equals(summary.getIsFeatured()))
+                .status(summary.getStatus())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .authorName(authorName)
+                .authorId(authorId)
+                .authorAvatar("https://ui-avatars.com/api/?name=" + (authorName != null ? authorName : "User"))
+                .build();
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Blog;
+import com.example.demo.repository.BlogRepository;
+import com.example.demo.util.TextFoldingUtil;
+import com.example.demo.util.TransactionUtil;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over blog title + content, ranked with BM25.
+ * Terms are folded with {@link TextFoldingUtil} so "giac ngu" matches "giấc ngủ".
+ * Built from the database on startup and kept current by BlogService on
+ * create / update / approve / delete (applied after the transaction commits).
+ * Changes made through other instances are picked up by a periodic resync of
+ * the rows whose updated_at moved since the last one (minus
+ * blog.search.resync-overlap for clock skew and late commits); deleted rows
+ * are looked for only when the row count and the index disagree.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BlogSearchIndex {
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int TITLE_BOOST = 3;
+    static final int REBUILD_BATCH_SIZE = 500;
+
+    static final Pattern HTML_TAGS = Pattern.compile("<[^>]*>");
+    static final Pattern NON_TERM = Pattern.compile("[^a-z0-9]+");
+
+    final BlogRepository blogRepository;
+    final Duration resyncOverlap;
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Rows updated at or after this are re-read by the next resync; null until built
+    LocalDateTime syncedFrom;
+
+    // term -> (blogId -> weighted term frequency)
+    final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    final Map<Long, IndexedDoc> docs = new HashMap<>();
+    long totalLength = 0;
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    static class IndexedDoc {
+        Long id;
+        Long categoryId;
+        Blog.BlogStatus status;
+        LocalDateTime createdAt;
+        int length;
+        Set<String> terms;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class SearchHits {
+        List<Long> blogIds;
+        long total;
+    }
+
+    public BlogSearchIndex(BlogRepository blogRepository,
+            @Value("${blog.search.resync-overlap:PT1M}") Duration resyncOverlap) {
+        this.blogRepository = blogRepository;
+        this.resyncOverlap = resyncOverlap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        Long afterId = 0L;
+        int indexed = 0;
+
+        while (true) {
+            List<Object[]> rows = blogRepository.findSearchRowsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                put((Long) row[0], (String) row[1], (String) row[2], (Long) row[3],
+                        (Blog.BlogStatus) row[4], (LocalDateTime) row[5]);
+                afterId = (Long) row[0];
+                indexed++;
+            }
+        }
+
+        syncedFrom = startedAt.minus(resyncOverlap);
+        log.info("🔎 Blog search index built: {} posts in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Re-index posts changed since the last sync, by this instance or another
+     * one, and drop posts deleted meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${blog.search.resync-interval-ms:30000}")
+    public synchronized void resync() {
+        if (syncedFrom == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime afterUpdatedAt = syncedFrom;
+        Long afterId = 0L;
+        int updated = 0;
+
+        while (true) {
+            List<Object[]> rows = blogRepository.findSearchRowsUpdatedAfter(afterUpdatedAt, afterId,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                put((Long) row[0], (String) row[1], (String) row[2], (Long) row[3],
+                        (Blog.BlogStatus) row[4], (LocalDateTime) row[5]);
+                afterUpdatedAt = (LocalDateTime) row[6];
+                afterId = (Long) row[0];
+                updated++;
+            }
+        }
+
+        // A delete leaves no row to find by updated_at; every live row is indexed by now, so a gap means one
+        int removed = 0;
+        if (blogRepository.count() != size()) {
+            removed = retainOnly(new HashSet<>(blogRepository.findAllIds()));
+        }
+
+        syncedFrom = startedAt.minus(resyncOverlap);
+        if (updated > 0 || removed > 0) {
+            log.debug("Blog search index resynced: {} re-indexed, {} removed", updated, removed);
+        }
+    }
+
+    /**
+     * Index (or re-index) a blog once the surrounding transaction has committed.
+     */
+    public void indexAfterCommit(Blog blog) {
+        Long id = blog.getId();
+        String title = blog.getTitle();
+        String content = blog.getContent();
+        Long categoryId = blog.getCategory() != null ? blog.getCategory().getId() : null;
+        Blog.BlogStatus status = blog.getStatus();
+        LocalDateTime createdAt = blog.getCreatedAt();
+
+        TransactionUtil.afterCommit(() -> put(id, title, content, categoryId, status, createdAt));
+    }
+
+    public void removeAfterCommit(Long blogId) {
+        TransactionUtil.afterCommit(() -> remove(blogId));
+    }
+
+    /**
+     * Apply a bulk status change (moderation) without re-tokenizing the posts.
+     */
+    public void updateStatusAfterCommit(Collection<Long> blogIds, Blog.BlogStatus status) {
+        List<Long> ids = List.copyOf(blogIds);
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long id : ids) {
+                    IndexedDoc doc = docs.get(id);
+                    if (doc != null) {
+                        docs.put(id, new IndexedDoc(id, doc.getCategoryId(), status, doc.getCreatedAt(),
+                                doc.getLength(), doc.getTerms()));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Rank matching blogs with BM25. A blank query returns every blog matching
+     * the filters, newest first.
+     */
+    public SearchHits search(String query, Long categoryId, Blog.BlogStatus status, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        int wanted = (int) Math.min((long) Math.max(0, offset) + limit, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            if (queryTerms.isEmpty()) {
+                return newestMatching(categoryId, status, offset, wanted);
+            }
+
+            double avgLength = docs.isEmpty() ? 0 : (double) totalLength / docs.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docs.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    IndexedDoc doc = docs.get(posting.getKey());
+                    if (!matches(doc, categoryId, status)) {
+                        continue;
+                    }
+                    int tf = posting.getValue();
+                    double norm = K1 * (1 - B + B * doc.getLength() / avgLength);
+                    scores.merge(doc.getId(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            // Keep only the top (offset + limit) hits instead of sorting every match
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(
+                    Map.Entry.<Long, Double>comparingByValue()
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey()));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(0, top.poll().getKey());
+            }
+            return new SearchHits(page(ranked, offset), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchHits newestMatching(Long categoryId, Blog.BlogStatus status, int offset, int wanted) {
+        Comparator<IndexedDoc> newest = Comparator
+                .comparing(IndexedDoc::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(IndexedDoc::getId);
+
+        PriorityQueue<IndexedDoc> top = new PriorityQueue<>(newest);
+        long total = 0;
+        for (IndexedDoc doc : docs.values()) {
+            if (!matches(doc, categoryId, status)) {
+                continue;
+            }
+            total++;
+            top.offer(doc);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(0, top.poll().getId());
+        }
+        return new SearchHits(page(ranked, offset), total);
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int retainOnly(Set<Long> liveIds) {
+        lock.writeLock().lock();
+        try {
+            List<Long> gone = docs.keySet().stream().filter(id -> !liveIds.contains(id)).toList();
+            gone.forEach(this::removeLocked);
+            return gone.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> page(List<Long> ranked, int offset) {
+        int from = Math.max(0, offset);
+        return from >= ranked.size() ? List.of() : ranked.subList(from, ranked.size());
+    }
+
+    private boolean matches(IndexedDoc doc, Long categoryId, Blog.BlogStatus status) {
+        return doc != null
+                && (categoryId == null || categoryId.equals(doc.getCategoryId()))
+                && (status == null || status == doc.getStatus());
+    }
+
+    private void put(Long id, String title, String content, Long categoryId, Blog.BlogStatus status,
+            LocalDateTime createdAt) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> titleTerms = tokenize(title);
+        List<String> contentTerms = tokenize(content == null ? null : HTML_TAGS.matcher(content).replaceAll(" "));
+        titleTerms.forEach(term -> frequencies.merge(term, TITLE_BOOST, Integer::sum));
+        contentTerms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        IndexedDoc doc = new IndexedDoc(id, categoryId, status, createdAt,
+                titleTerms.size() + contentTerms.size(), frequencies.keySet());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+            docs.put(id, doc);
+            totalLength += doc.getLength();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        IndexedDoc previous = docs.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.getLength();
+        for (String term : previous.getTerms()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String term : NON_TERM.split(TextFoldingUtil.fold(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -1,30 +1,46 @@
 package com.example.demo.service;
 
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.component.FeaturedBlogRanker;
 import com.example.demo.dto.request.BlogCreateRequest;
+import com.example.demo.dto.request.BlogModerationRequest;
 import com.example.demo.dto.request.BlogUpdateRequest;
+import com.example.demo.dto.response.BlogModerationResponse;
 import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.dto.response.BlogSearchResponse;
+import com.example.demo.dto.response.BlogSummaryResponse;
 import com.example.demo.entity.Blog;
 import com.example.demo.dto.response.CategoryResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.entity.BlogCategory;
 import com.example.demo.entity.User;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
 import com.example.demo.repository.BlogCategoryRepository;
 import com.example.demo.repository.BlogRepository;
+import com.example.demo.repository.BlogSummaryView;
 import com.example.demo.repository.ExpertProfileRepository;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.util.SecurityUtil;
+import com.example.demo.util.BlogCursor;
+import com.example.demo.util.BlogSummaryUtil;
+import com.example.demo.util.TextFoldingUtil;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,29 +48,29 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class BlogService {
+    static final int MAX_PAGE_SIZE = 50;
+
     BlogRepository blogRepository;
     BlogCategoryRepository blogCategoryRepository;
     ExpertProfileRepository expertProfileRepository;
-    UserRepository userRepository;
     com.example.demo.repository.BlogInteractionRepository blogInteractionRepository;
     com.example.demo.repository.CommentRepository commentRepository;
+    BlogFeedAssembler blogFeedAssembler;
+    BlogSearchIndex blogSearchIndex;
+    BlogCounterBuffer blogCounterBuffer;
+    BlogViewTracker blogViewTracker;
+    FeaturedBlogRanker featuredBlogRanker;
+    BlogCache blogCache;
+    CurrentUserResolver currentUserResolver;
 
     @Transactional
     public BlogResponse createBlog(BlogCreateRequest request) {
-        // Lấy username từ JWT token
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null) {
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-        }
-
-        // Tìm user hiện tại
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        // User hiện tại lấy từ JWT (id + roles), không cần query
+        Long currentUserId = currentUserResolver.requireUserId();
+        boolean isExpert = currentUserResolver.hasRole("EXPERT");
 
         // Kiểm tra permission (EXPERT or ADMIN)
-        boolean canAutoPublish = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("EXPERT") || role.getName().equals("ADMIN"));
+        boolean canAutoPublish = isExpert || currentUserResolver.hasRole("ADMIN");
 
         // Kiểm tra category tồn tại
         BlogCategory category = blogCategoryRepository.findById(request.getCategoryId())
@@ -62,18 +78,19 @@ public class BlogService {
 
         // Tạo blog mới
         Blog blog = new Blog();
-        blog.setAuthor(currentUser); // Set user as author
+        blog.setAuthor(currentUserResolver.getUserReference()); // Set user as author
         blog.setCategory(category);
         blog.setTitle(request.getTitle());
         blog.setContent(request.getContent());
         blog.setImageUrls(request.getImageUrls());
+        BlogSummaryUtil.apply(blog);
 
         // Set status based on role
         if (canAutoPublish) {
             // EXPERT/ADMIN: Auto Publish
             // If Expert, set Expert profile if available
-            if (currentUser.getRoles().stream().anyMatch(r -> r.getName().equals("EXPERT"))) {
-                expertProfileRepository.findByUserId(currentUser.getId())
+            if (isExpert) {
+                expertProfileRepository.findByUserId(currentUserId)
                         .ifPresent(blog::setExpert);
             }
 
@@ -99,20 +116,42 @@ public class BlogService {
         blog.setSlug(finalSlug);
 
         Blog savedBlog = blogRepository.save(blog);
+        blogSearchIndex.indexAfterCommit(savedBlog);
+        blogCache.evictAfterCommit(savedBlog.getId());
 
         return mapToResponse(savedBlog);
     }
 
     public BlogResponse getBlogById(Long id) {
-        Blog blog = blogRepository.findById(id)
+        BlogResponse shared = blogCache.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
-        return mapToResponse(blog);
+        return blogFeedAssembler.personalize(shared);
     }
 
-    public List<BlogResponse> getAllBlogs() {
-        return blogRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public BlogResponse getBlogBySlug(String slug) {
+        Long id = blogCache.findIdBySlug(slug)
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
+        return getBlogById(id);
+    }
+
+    /**
+     * Count a read of the blog, deduplicated per signed-in user or client IP.
+     */
+    public void recordView(Long id, String clientIp) {
+        Long userId = currentUserResolver.getUserId();
+        blogViewTracker.recordView(id, userId != null ? "user:" + userId : "ip:" + clientIp);
+    }
+
+    public CursorPageResponse<BlogSummaryResponse> getAllBlogs(String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        List<BlogSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = blogRepository.findSummaryPage(limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = blogRepository.findSummaryPageBefore(position.getCreatedAt(), position.getId(), limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1);
     }
 
     @Transactional
@@ -120,10 +159,10 @@ public class BlogService {
         Blog blog = blogRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
 
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserResolver.requireUserId();
 
         // Permission check: ADMIN or Author
-        boolean isAdmin = currentUser.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
+        boolean isAdmin = currentUserResolver.hasRole("ADMIN");
 
         // Author check with fallback
         User author = blog.getAuthor();
@@ -131,7 +170,7 @@ public class BlogService {
             author = blog.getExpert().getUser();
         }
 
-        boolean isOwner = author != null && author.getId().equals(currentUser.getId());
+        boolean isOwner = author != null && author.getId().equals(currentUserId);
 
         if (!isAdmin && !isOwner) {
             throw new AppException(ErrorCode.UNAUTHORIZED);
@@ -163,6 +202,8 @@ public class BlogService {
             blog.setImageUrls(request.getImageUrls());
         }
 
+        BlogSummaryUtil.apply(blog);
+
         if (request.getStatus() != null) {
             try {
                 blog.setStatus(Blog.BlogStatus.valueOf(request.getStatus()));
@@ -171,7 +212,11 @@ public class BlogService {
             }
         }
 
-        return mapToResponse(blogRepository.save(blog));
+        Blog savedBlog = blogRepository.save(blog);
+        blogSearchIndex.indexAfterCommit(savedBlog);
+        blogCache.evictAfterCommit(savedBlog.getId());
+
+        return mapToResponse(savedBlog);
     }
 
     @Transactional
@@ -179,10 +224,10 @@ public class BlogService {
         Blog blog = blogRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
 
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserResolver.requireUserId();
 
         // Permission check: ADMIN or Author
-        boolean isAdmin = currentUser.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
+        boolean isAdmin = currentUserResolver.hasRole("ADMIN");
 
         // Author check with fallback
         User author = blog.getAuthor();
@@ -190,13 +235,17 @@ public class BlogService {
             author = blog.getExpert().getUser();
         }
 
-        boolean isOwner = author != null && author.getId().equals(currentUser.getId());
+        boolean isOwner = author != null && author.getId().equals(currentUserId);
 
         if (!isAdmin && !isOwner) {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
         blogRepository.delete(blog);
+        blogSearchIndex.removeAfterCommit(id);
+        blogCache.evictAfterCommit(id);
+        blogCounterBuffer.forget(id);
+        blogViewTracker.forget(id);
     }
 
     private boolean canManageBlog(Blog blog, User user) {
@@ -221,73 +270,89 @@ public class BlogService {
         return isAdmin || isOwner || isAssignedExpert;
     }
 
-    private User getCurrentUser() {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null) {
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
+    public CursorPageResponse<BlogSummaryResponse> getBlogsByExpert(Long expertId, String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        List<BlogSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = blogRepository.findSummaryPageByExpertId(expertId, limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = blogRepository.findSummaryPageByExpertIdBefore(expertId, position.getCreatedAt(),
+                    position.getId(), limit);
         }
-
-        return userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        return toCursorPage(rows, limit.getPageSize() - 1);
     }
 
-    public List<BlogResponse> getBlogsByExpert(Long expertId) {
-        return blogRepository.findByExpertId(expertId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<CategoryResponse> getAllCategories() {
+        return blogCache.getCategories();
     }
 
-    public List<CategoryResponse> getAllCategories() {
-        return blogCategoryRepository.findAll().stream()
-                .map(category -> CategoryResponse.builder()
-                        .id(category.getId())
-                        .name(category.getName())
-                        .description(category.getDescription())
-                        .build())
-                .collect(Collectors.toList());
+    public CursorPageResponse<BlogSummaryResponse> getPublishedBlogs(String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        List<BlogSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = blogRepository.findSummaryPageByStatus(Blog.BlogStatus.PUBLISHED, limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = blogRepository.findSummaryPageByStatusBefore(Blog.BlogStatus.PUBLISHED,
+                    position.getCreatedAt(), position.getId(), limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1);
     }
 
-    public List<BlogResponse> getPublishedBlogs() {
-        return blogRepository.findByStatus(Blog.BlogStatus.PUBLISHED).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Fetch one row more than requested so we know whether a next page exists
+     * without a COUNT query.
+     */
+    private Pageable pageLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PageRequest.of(0, pageSize + 1);
     }
 
-    public List<BlogResponse> searchBlogs(String title, Long categoryId, Blog.BlogStatus status) {
-        List<Blog> blogs;
-
-        // Xử lý các trường hợp search khác nhau
-        if (title != null && !title.isBlank() && categoryId != null && status != null) {
-            // Search theo title, category và status
-            blogs = blogRepository.findByTitleContainingIgnoreCaseAndCategoryIdAndStatus(
-                    title, categoryId, status);
-        } else if (title != null && !title.isBlank() && categoryId != null) {
-            // Search theo title và category
-            blogs = blogRepository.findByTitleContainingIgnoreCaseAndCategoryId(title, categoryId);
-        } else if (title != null && !title.isBlank() && status != null) {
-            // Search theo title và status
-            blogs = blogRepository.findByTitleContainingIgnoreCaseAndStatus(title, status);
-        } else if (title != null && !title.isBlank()) {
-            // Chỉ search theo title
-            blogs = blogRepository.findByTitleContainingIgnoreCase(title);
-        } else if (categoryId != null && status != null) {
-            // Search theo category và status
-            blogs = blogRepository.findByCategoryIdAndStatus(categoryId, status);
-        } else if (categoryId != null) {
-            // Chỉ search theo category
-            blogs = blogRepository.findByCategoryId(categoryId);
-        } else if (status != null) {
-            // Chỉ search theo status
-            blogs = blogRepository.findByStatus(status);
-        } else {
-            // Không có điều kiện nào, trả về tất cả
-            blogs = blogRepository.findAll();
+    private CursorPageResponse<BlogSummaryResponse> toCursorPage(List<BlogSummaryView> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<BlogSummaryView> blogs = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            BlogSummaryView last = blogs.get(blogs.size() - 1);
+            nextCursor = new BlogCursor(last.getCreatedAt(), last.getId()).encode();
         }
 
-        return blogs.stream()
-                .map(this::mapToResponse)
+        return CursorPageResponse.<BlogSummaryResponse>builder()
+                .items(blogFeedAssembler.assembleSummaries(blogs))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public BlogSearchResponse searchBlogs(String query, Long categoryId, Blog.BlogStatus status, int page,
+            int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        // A page far past the last hit just comes back empty, without overflowing the offset
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE - pageSize);
+        BlogSearchIndex.SearchHits hits = blogSearchIndex.search(query, categoryId, status, offset, pageSize);
+
+        // Hydrate the page in one query, then restore the ranking order
+        Map<Long, BlogSummaryView> blogsById = blogRepository.findSummariesByIdIn(hits.getBlogIds()).stream()
+                .collect(Collectors.toMap(BlogSummaryView::getId, Function.identity()));
+        // The row wins over the index, which may not have seen another instance's change yet
+        List<BlogSummaryView> blogs = hits.getBlogIds().stream()
+                .map(blogsById::get)
+                .filter(Objects::nonNull)
+                .filter(blog -> status == null || status == blog.getStatus())
+                .filter(blog -> categoryId == null || categoryId.equals(blog.getCategoryId()))
                 .collect(Collectors.toList());
+
+        return BlogSearchResponse.builder()
+                .items(blogFeedAssembler.assembleSummaries(blogs))
+                .total(hits.getTotal())
+                .page(pageNumber)
+                .size(pageSize)
+                .hasNext((long) (pageNumber + 1) * pageSize < hits.getTotal())
+                .build();
     }
 
     private String generateSlug(String title) {
@@ -296,11 +361,7 @@ public class BlogService {
         }
 
         // Normalize và chuyển thành slug
-        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        String slug = pattern.matcher(normalized).replaceAll("");
-
-        slug = slug.toLowerCase(Locale.ENGLISH)
+        String slug = TextFoldingUtil.fold(title)
                 .replaceAll("[^a-z0-9\\s-]", "")
                 .replaceAll("\\s+", "-")
                 .replaceAll("-+", "-")
@@ -320,127 +381,99 @@ public class BlogService {
         // If approving, maybe set expert as the approver? Or just leave it.
         // For now just update status.
 
-        return mapToResponse(blogRepository.save(blog));
+        Blog savedBlog = blogRepository.save(blog);
+        blogSearchIndex.indexAfterCommit(savedBlog);
+        blogCache.evictAfterCommit(savedBlog.getId());
+
+        return mapToResponse(savedBlog);
+    }
+
+    /**
+     * PENDING blogs waiting for review, oldest first.
+     */
+    public CursorPageResponse<BlogSummaryResponse> getModerationQueue(String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        List<BlogSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = blogRepository.findQueuePageByStatus(Blog.BlogStatus.PENDING, limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = blogRepository.findQueuePageByStatusAfter(Blog.BlogStatus.PENDING, position.getCreatedAt(),
+                    position.getId(), limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1);
     }
 
+    /**
+     * Approve or reject a batch of PENDING blogs with one UPDATE. Blogs that are
+     * missing or already moderated are skipped; caches and the search index are
+     * refreshed once for the whole batch.
+     */
     @Transactional
-    public void likeBlog(Long blogId) {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null)
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
+    public BlogModerationResponse moderateBlogs(BlogModerationRequest request) {
+        Blog.BlogStatus target = request.getAction() == BlogModerationRequest.Action.APPROVE
+                ? Blog.BlogStatus.PUBLISHED
+                : Blog.BlogStatus.DRAFT;
+        Set<Long> requested = new HashSet<>(request.getBlogIds());
+
+        List<Long> pendingIds = blogRepository.findIdsByIdInAndStatus(requested, Blog.BlogStatus.PENDING);
+        if (!pendingIds.isEmpty()) {
+            blogRepository.updateStatusByIdIn(pendingIds, Blog.BlogStatus.PENDING, target, LocalDateTime.now());
+            blogSearchIndex.updateStatusAfterCommit(pendingIds, target);
+            blogCache.evictAllAfterCommit(pendingIds);
+        }
 
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        return BlogModerationResponse.builder()
+                .status(target)
+                .updatedIds(pendingIds)
+                .skipped(requested.size() - pendingIds.size())
+                .build();
+    }
 
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
+    @Transactional
+    public void likeBlog(Long blogId) {
+        Long currentUserId = currentUserResolver.requireUserId();
 
-        if (!blogInteractionRepository.existsByUserAndBlogAndInteractionType(currentUser, blog,
-                com.example.demo.entity.BlogInteraction.InteractionType.LIKE)) {
-            com.example.demo.entity.BlogInteraction interaction = new com.example.demo.entity.BlogInteraction();
-            interaction.setUser(currentUser);
-            interaction.setBlog(blog);
-            interaction.setInteractionType(com.example.demo.entity.BlogInteraction.InteractionType.LIKE);
-            blogInteractionRepository.save(interaction);
+        if (!blogRepository.existsById(blogId)) {
+            throw new AppException(ErrorCode.INVALID_KEY);
         }
+
+        int inserted = blogInteractionRepository.insertIfAbsent(currentUserId, blogId,
+                com.example.demo.entity.BlogInteraction.InteractionType.LIKE.name());
+        blogCounterBuffer.addLikesAfterCommit(blogId, inserted);
     }
 
     @Transactional
     public void unlikeBlog(Long blogId) {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null)
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        Long currentUserId = currentUserResolver.requireUserId();
 
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
-
-        blogInteractionRepository
-                .findByUserAndBlogAndInteractionType(currentUser, blog,
-                        com.example.demo.entity.BlogInteraction.InteractionType.LIKE)
-                .ifPresent(blogInteractionRepository::delete);
-    }
-
-    private BlogResponse mapToResponse(Blog blog) {
-        String username = SecurityUtil.getCurrentUsername();
-        User currentUser = null;
-        if (username != null) {
-            currentUser = userRepository.findByUsername(username)
-                    .orElse(null);
+        if (!blogRepository.existsById(blogId)) {
+            throw new AppException(ErrorCode.INVALID_KEY);
         }
 
-        long likeCount = blogInteractionRepository.countByBlogAndInteractionType(blog,
+        int deleted = blogInteractionRepository.deleteByUserIdAndBlogIdAndType(currentUserId, blogId,
                 com.example.demo.entity.BlogInteraction.InteractionType.LIKE);
-        long commentCount = commentRepository.countByBlog(blog);
-        boolean isLiked = currentUser != null && blogInteractionRepository.existsByUserAndBlogAndInteractionType(
-                currentUser, blog, com.example.demo.entity.BlogInteraction.InteractionType.LIKE);
-
-        // Calculate author fallback
-        User author = blog.getAuthor();
-        if (author == null && blog.getExpert() != null) {
-            author = blog.getExpert().getUser();
-        }
-
-        return BlogResponse.builder()
-                .id(blog.getId())
-                .expertId(blog.getExpert() != null ? blog.getExpert().getId() : null)
-                .expertName(blog.getExpert() != null && blog.getExpert().getUser() != null
-                        ? blog.getExpert().getUser().getFullName()
-                        : null)
-                .categoryId(blog.getCategory() != null ? blog.getCategory().getId() : null)
-                .categoryName(blog.getCategory() != null ? blog.getCategory().getName() : null)
-                .title(blog.getTitle())
-                .slug(blog.getSlug())
-                .content(blog.getContent())
-                .imageUrls(blog.getImageUrls())
-                .viewCount(blog.getViewCount())
-
-                .likeCount(likeCount)
-                .commentCount(commentCount)
-                .isLiked(isLiked)
-                .isFeatured(blog.isFeatured())
-                .status(blog.getStatus())
-                .createdAt(blog.getCreatedAt())
-                .updatedAt(blog.getUpdatedAt())
-                // Set Author details with fallback
-                .authorName(author != null ? author.getFullName() : null)
-                .authorId(author != null ? author.getId() : null)
-                .authorAvatar("https://ui-avatars.com/api/?name="
-                        + (author != null ? author.getFullName() : "User"))
-                .expertUserId(blog.getExpert() != null && blog.getExpert().getUser() != null
-                        ? blog.getExpert().getUser().getId()
-                        : null)
-                .build();
+        blogCounterBuffer.addLikesAfterCommit(blogId, -deleted);
     }
 
-    public List<BlogResponse> getFeaturedBlogs() {
-        // Priority 1: blogs explicitly marked as featured
-        List<Blog> featured = blogRepository.findByStatus(Blog.BlogStatus.PUBLISHED).stream()
-                .filter(Blog::isFeatured)
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(5)
-                .collect(Collectors.toList());
+    private BlogResponse mapToResponse(Blog blog) {
+        return blogFeedAssembler.assemble(blog);
+    }
 
-        // Supplement with trending blogs if needed (based on view count and likes)
-        if (featured.size() < 3) {
-            List<Blog> trending = blogRepository.findByStatus(Blog.BlogStatus.PUBLISHED).stream()
-                    .filter(b -> !featured.contains(b))
-                    .sorted((a, b) -> {
-                        long scoreA = a.getViewCount() + (long) a.getInteractions().size() * 5;
-                        long scoreB = b.getViewCount() + (long) b.getInteractions().size() * 5;
-                        return Long.compare(scoreB, scoreA);
-                    })
-                    .limit(5 - featured.size())
-                    .collect(Collectors.toList());
-            featured.addAll(trending);
+    public List<BlogSummaryResponse> getFeaturedBlogs() {
+        // Ranking is precomputed by FeaturedBlogRanker, only hydrate the few ids of the snapshot
+        List<Long> ids = featuredBlogRanker.getSnapshot();
+        if (ids.isEmpty()) {
+            return List.of();
         }
 
-        return featured.stream()
-                .map(this::mapToResponse)
+        Map<Long, BlogSummaryView> blogsById = blogRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BlogSummaryView::getId, Function.identity()));
+        List<BlogSummaryView> featured = ids.stream()
+                .map(blogsById::get)
+                .filter(blog -> blog != null && blog.getStatus() == Blog.BlogStatus.PUBLISHED)
                 .collect(Collectors.toList());
+
+        return blogFeedAssembler.assembleSummaries(featured);
     }
 }
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.component.AiJobQueue;
+import com.example.demo.entity.AiChatSummary;
+import com.example.demo.entity.AiJob;
+import com.example.demo.repository.AiChatLogRepository;
+import com.example.demo.repository.AiChatSummaryRepository;
+import com.example.demo.repository.AiChatTurnView;
+import com.example.demo.util.TokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversation context of the AI chat, built from the user's AiChatLog rows.
+ * <p>
+ * The prompt holds the running summary of older turns (if any), then as many
+ * of the newest turns as fit in ai.memory.token-budget, counted with
+ * {@link TokenEstimator}. Recent turns come from one query on
+ * (user_id, created_at), capped at ai.memory.max-turns. When turns had to be
+ * dropped, all but the newest ai.memory.keep-turns are folded into the summary
+ * by a CHAT_SUMMARY job, off the request path.
+ */
+@Slf4j
+@Component
+public class ChatMemory {
+    static final String SUMMARY_PREFIX = "Tóm tắt các cuộc trò chuyện trước với người dùng: ";
+
+    private final AiChatLogRepository aiChatLogRepository;
+    private final AiChatSummaryRepository aiChatSummaryRepository;
+    private final AiJobQueue aiJobQueue;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int tokenBudget;
+    private final int maxTurns;
+    private final int keepTurns;
+
+    public ChatMemory(AiChatLogRepository aiChatLogRepository, AiChatSummaryRepository aiChatSummaryRepository,
+            AiJobQueue aiJobQueue, TransactionTemplate transactionTemplate,
+            @Value("${ai.memory.enabled:true}") boolean enabled,
+            @Value("${ai.memory.token-budget:2000}") int tokenBudget,
+            @Value("${ai.memory.max-turns:20}") int maxTurns,
+            @Value("${ai.memory.keep-turns:6}") int keepTurns) {
+        this.aiChatLogRepository = aiChatLogRepository;
+        this.aiChatSummaryRepository = aiChatSummaryRepository;
+        this.aiJobQueue = aiJobQueue;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.tokenBudget = tokenBudget;
+        this.maxTurns = maxTurns;
+        this.keepTurns = keepTurns;
+    }
+
+    /**
+     * Messages to send before the new user message, oldest first. Empty for
+     * anonymous users, when disabled, or when loading fails (the chat then
+     * simply runs without context).
+     */
+    public List<Message> contextFor(Long userId, String message) {
+        if (!enabled || userId == null) {
+            return List.of();
+        }
+        try {
+            return buildContext(userId, message);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to load AI chat memory for user {}: {}", userId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<Message> buildContext(Long userId, String message) {
+        AiChatSummary summary = aiChatSummaryRepository.findById(userId).orElse(null);
+        long afterId = summary == null ? 0L : summary.getSummarizedUntilId();
+        List<AiChatTurnView> recent = aiChatLogRepository.findRecentTurns(userId, afterId,
+                PageRequest.of(0, maxTurns));
+
+        int remaining = tokenBudget - TokenEstimator.estimateMessage(message);
+        List<Message> context = new ArrayList<>();
+        if (summary != null) {
+            String text = SUMMARY_PREFIX + summary.getSummary();
+            int cost = TokenEstimator.estimateMessage(text);
+            if (cost <= remaining) {
+                context.add(new SystemMessage(text));
+                remaining -= cost;
+            }
+        }
+
+        // Newest first until the budget runs out
+        int kept = 0;
+        for (AiChatTurnView turn : recent) {
+            int cost = TokenEstimator.estimateMessage(turn.getUserMessage())
+                    + TokenEstimator.estimateMessage(turn.getAiResponse());
+            if (cost > remaining) {
+                break;
+            }
+            remaining -= cost;
+            kept++;
+        }
+        for (int i = kept - 1; i >= 0; i--) {
+            AiChatTurnView turn = recent.get(i);
+            context.add(new UserMessage(nullToEmpty(turn.getUserMessage())));
+            context.add(new AssistantMessage(nullToEmpty(turn.getAiResponse())));
+        }
+
+        // Trimmed, or the page is full and older turns are about to fall out of reach
+        if (recent.size() > keepTurns && (kept < recent.size() || recent.size() >= maxTurns)) {
+            requestFold(userId, recent.get(keepTurns).getId());
+        }
+        return context;
+    }
+
+    // Fold everything up to and including untilId; the id doubles as the job's dedup key
+    private void requestFold(Long userId, Long untilId) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> aiJobQueue.enqueue(AiJob.Type.CHAT_SUMMARY, userId, String.valueOf(untilId)));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to queue AI chat summary for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String nullToEmpty(String text) {
+        return text == null ? "" : text;
+    }
+}
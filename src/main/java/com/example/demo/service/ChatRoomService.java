@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.ChatRoomRequest;
 import com.example.demo.entity.ChatMessage;
 import com.example.demo.entity.ChatRoom;
@@ -9,7 +10,6 @@ import com.example.demo.repository.ChatRoomRepository;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import org.springframework.data.domain.PageRequest;
@@ -24,15 +24,17 @@ public class ChatRoomService {
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     public List<ChatMessage> getMessages(Long roomId, int page, int size) {
         ChatRoom room = chatRoomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
         if (room.getType() == ChatRoom.ChatRoomType.GROUP) {
-            User currentUser = getCurrentUser();
-            if (room.getMembers().stream().noneMatch(m -> m.getId().equals(currentUser.getId()))) {
-                room.getMembers().add(currentUser);
+            Long currentUserId = currentUserResolver.requireUserId();
+            if (room.getMembers().stream().noneMatch(m -> m.getId().equals(currentUserId))) {
+                // Join row only, the users row is not read
+                room.getMembers().add(currentUserResolver.getUserReference());
                 chatRoomRepository.save(room);
             }
         }
@@ -80,9 +82,8 @@ public class ChatRoomService {
         return chatRoomRepository.save(room);
     }
 
+    // The returned room serializes its creator and members, so this one loads the entity
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.requireUser();
     }
 }
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.component.AiJobHandler;
+import com.example.demo.component.LlmRoutes;
+import com.example.demo.entity.AiChatSummary;
+import com.example.demo.entity.AiJob;
+import com.example.demo.repository.AiChatLogRepository;
+import com.example.demo.repository.AiChatSummaryRepository;
+import com.example.demo.repository.AiChatTurnView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Folds older AI chat turns into the user's running summary
+ * (AiJob.Type.CHAT_SUMMARY). The job's subject is the user id and its
+ * content hash the id of the newest turn to fold.
+ */
+@Component
+public class ChatSummaryJobHandler implements AiJobHandler {
+    // Longer messages are cut in the summary prompt, the gist is in the start
+    private static final int MAX_MESSAGE_CHARS = 1000;
+
+    private final AiChatLogRepository aiChatLogRepository;
+    private final AiChatSummaryRepository aiChatSummaryRepository;
+    private final AiChatService aiChatService;
+    private final int batchSize;
+    private final int maxWords;
+
+    public ChatSummaryJobHandler(AiChatLogRepository aiChatLogRepository,
+            AiChatSummaryRepository aiChatSummaryRepository, AiChatService aiChatService,
+            @Value("${ai.memory.max-turns:20}") int batchSize,
+            @Value("${ai.memory.summary-max-words:150}") int maxWords) {
+        this.aiChatLogRepository = aiChatLogRepository;
+        this.aiChatSummaryRepository = aiChatSummaryRepository;
+        this.aiChatService = aiChatService;
+        this.batchSize = batchSize;
+        this.maxWords = maxWords;
+    }
+
+    @Override
+    public AiJob.Type type() {
+        return AiJob.Type.CHAT_SUMMARY;
+    }
+
+    @Override
+    public boolean handle(AiJob job) {
+        Long userId = job.getSubjectId();
+        long untilId = Long.parseLong(job.getContentHash());
+        AiChatSummary summary = aiChatSummaryRepository.findById(userId).orElse(null);
+        long afterId = summary == null ? 0L : summary.getSummarizedUntilId();
+        // Already covered by an earlier fold
+        if (afterId >= untilId) {
+            return false;
+        }
+        // A long backlog is folded batch by batch, the next chat request queues the rest
+        List<AiChatTurnView> turns = aiChatLogRepository.findTurnsToFold(userId, afterId, untilId,
+                PageRequest.of(0, batchSize));
+        if (turns.isEmpty()) {
+            return false;
+        }
+
+        String prompt = buildPrompt(summary == null ? null : summary.getSummary(), turns);
+        String text = aiChatService.generate(LlmRoutes.Route.CHAT_SUMMARY, prompt);
+
+        if (summary == null) {
+            summary = AiChatSummary.builder().userId(userId).build();
+        }
+        summary.setSummary(text.strip());
+        summary.setSummarizedUntilId(turns.get(turns.size() - 1).getId());
+        // Optimistic lock: a concurrent fold of the same user makes this save fail and retry
+        aiChatSummaryRepository.save(summary);
+        return true;
+    }
+
+    private String buildPrompt(String previousSummary, List<AiChatTurnView> turns) {
+        StringBuilder prompt = new StringBuilder(
+                "Hãy tóm tắt cuộc trò chuyện giữa người dùng và Trợ lý Calmistry dưới đây thành một đoạn văn "
+                        + "dưới " + maxWords + " từ bằng tiếng Việt. Giữ lại các thông tin quan trọng về người dùng "
+                        + "(cảm xúc, vấn đề đang gặp, hoàn cảnh, lời khuyên đã nhận). Chỉ trả lời đoạn tóm tắt.\n\n");
+        if (previousSummary != null) {
+            prompt.append("Tóm tắt trước đó: ").append(previousSummary).append("\n\n");
+        }
+        for (AiChatTurnView turn : turns) {
+            prompt.append("Người dùng: ").append(truncate(turn.getUserMessage())).append('\n');
+            prompt.append("Trợ lý: ").append(truncate(turn.getAiResponse())).append('\n');
+        }
+        return prompt.toString();
+    }
+
+    private static String truncate(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() > MAX_MESSAGE_CHARS ? text.substring(0, MAX_MESSAGE_CHARS) + "…" : text;
+    }
+}
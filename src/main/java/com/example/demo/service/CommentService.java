@@ -1,7 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.CommentRequest;
 import com.example.demo.dto.response.CommentResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.UserResponse;
 import com.example.demo.entity.Blog;
 import com.example.demo.entity.Comment;
@@ -13,68 +16,133 @@ import com.example.demo.repository.BlogRepository;
 import com.example.demo.repository.CommentLikeRepository;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.util.SecurityUtil;
+import com.example.demo.repository.UserSummaryView;
+import com.example.demo.util.BlogCursor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CommentService {
+    static final int MAX_PAGE_SIZE = 50;
+
     CommentRepository commentRepository;
     CommentLikeRepository commentLikeRepository;
     BlogRepository blogRepository;
     UserRepository userRepository;
+    BlogCounterBuffer blogCounterBuffer;
+    CurrentUserResolver currentUserResolver;
 
     @Transactional
     public CommentResponse createComment(Long blogId, CommentRequest request) {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null)
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        CurrentUserResolver.Identity currentUser = currentUserResolver.requireIdentity();
 
         Blog blog = blogRepository.findById(blogId)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
 
+        Long parentId = null;
+        if (request.getParentId() != null) {
+            Comment parent = commentRepository.findById(request.getParentId())
+                    .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
+            if (!parent.getBlog().getId().equals(blogId)) {
+                throw new AppException(ErrorCode.INVALID_KEY);
+            }
+            // Threads are one level deep: a reply to a reply joins the root's thread
+            parentId = parent.getParentId() != null ? parent.getParentId() : parent.getId();
+        }
+
         Comment comment = Comment.builder()
                 .content(request.getContent())
-                .user(currentUser)
+                .user(currentUserResolver.getUserReference())
                 .blog(blog)
+                .parentId(parentId)
                 .build();
 
-        return mapToResponse(commentRepository.save(comment), currentUser);
+        Comment savedComment = commentRepository.save(comment);
+        blogCounterBuffer.addCommentsAfterCommit(blogId, 1);
+
+        return CommentResponse.builder()
+                .id(savedComment.getId())
+                .parentId(savedComment.getParentId())
+                .content(savedComment.getContent())
+                .user(UserResponse.builder()
+                        .id(currentUser.getId())
+                        .username(currentUser.getUsername())
+                        .fullName(currentUser.getFullName())
+                        .email(currentUser.getEmail())
+                        .avatarUrl(currentUser.getAvatarUrl())
+                        .build())
+                .createdAt(savedComment.getCreatedAt())
+                .likeCount(0)
+                .isLiked(false)
+                .replyCount(savedComment.getParentId() == null ? 0L : null)
+                .build();
     }
 
-    public List<CommentResponse> getCommentsByBlogId(Long blogId) {
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
+    /**
+     * Keyset page of a blog's comments, newest first. With threaded = true only
+     * top-level comments are listed, each with its reply count; replies are paged
+     * through {@link #getReplies}.
+     */
+    public CursorPageResponse<CommentResponse> getCommentsByBlogId(Long blogId, String cursor, int size,
+            boolean threaded) {
+        if (!blogRepository.existsById(blogId)) {
+            throw new AppException(ErrorCode.INVALID_KEY);
+        }
 
-        String currentUsername = SecurityUtil.getCurrentUsername();
-        User currentUser = currentUsername != null ? userRepository.findByUsername(currentUsername).orElse(null) : null;
+        Pageable limit = pageLimit(size);
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = threaded
+                    ? commentRepository.findRootPageByBlogId(blogId, limit)
+                    : commentRepository.findPageByBlogId(blogId, limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = threaded
+                    ? commentRepository.findRootPageByBlogIdBefore(blogId, position.getCreatedAt(), position.getId(),
+                            limit)
+                    : commentRepository.findPageByBlogIdBefore(blogId, position.getCreatedAt(), position.getId(),
+                            limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1, threaded);
+    }
 
-        return commentRepository.findByBlogOrderByCreatedAtDesc(blog).stream()
-                .map(comment -> mapToResponse(comment, currentUser))
-                .collect(Collectors.toList());
+    /**
+     * Keyset page of the replies to a comment, oldest first.
+     */
+    public CursorPageResponse<CommentResponse> getReplies(Long commentId, String cursor, int size) {
+        if (!commentRepository.existsById(commentId)) {
+            throw new AppException(ErrorCode.INVALID_KEY);
+        }
+
+        Pageable limit = pageLimit(size);
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findReplyPage(commentId, limit);
+        } else {
+            BlogCursor position = BlogCursor.decode(cursor);
+            rows = commentRepository.findReplyPageAfter(commentId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1, false);
     }
 
     @Transactional
     public void likeComment(Long commentId) {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null)
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        User currentUser = currentUserResolver.getUserReference();
 
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY)); // Using generic error for not found
@@ -90,13 +158,7 @@ public class CommentService {
 
     @Transactional
     public void unlikeComment(Long commentId) {
-        String username = SecurityUtil.getCurrentUsername();
-        if (username == null)
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        User currentUser = userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+        User currentUser = currentUserResolver.getUserReference();
 
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_KEY));
@@ -105,26 +167,85 @@ public class CommentService {
                 .ifPresent(commentLikeRepository::delete);
     }
 
-    private CommentResponse mapToResponse(Comment comment, User currentUser) {
-        long likeCount = commentLikeRepository.countByComment(comment);
-        boolean isLiked = currentUser != null && commentLikeRepository.existsByUserAndComment(currentUser, comment);
-
-        User user = comment.getUser();
-        UserResponse userResponse = UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                // Add other fields if necessary
-                .build();
+    private Pageable pageLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PageRequest.of(0, pageSize + 1);
+    }
 
-        return CommentResponse.builder()
-                .id(comment.getId())
-                .content(comment.getContent())
-                .user(userResponse)
-                .createdAt(comment.getCreatedAt())
-                .likeCount(likeCount)
-                .isLiked(isLiked)
+    private CursorPageResponse<CommentResponse> toCursorPage(List<Comment> rows, int size, boolean withReplyCounts) {
+        boolean hasNext = rows.size() > size;
+        List<Comment> comments = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = new BlogCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<CommentResponse>builder()
+                .items(assemble(comments, withReplyCounts))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
                 .build();
     }
+
+    /**
+     * Build a page of responses with a fixed number of queries: authors, like
+     * counts, the caller's liked set and (optionally) reply counts are each one
+     * batched lookup, whatever the page size.
+     */
+    private List<CommentResponse> assemble(List<Comment> comments, boolean withReplyCounts) {
+        if (comments.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> commentIds = comments.stream().map(Comment::getId).collect(Collectors.toSet());
+        // getUser().getId() reads the proxy's id, it does not load the user
+        Set<Long> userIds = comments.stream().map(comment -> comment.getUser().getId()).collect(Collectors.toSet());
+
+        Map<Long, UserResponse> users = userRepository.findSummariesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserSummaryView::getId, user -> UserResponse.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .fullName(user.getFullName())
+                        .email(user.getEmail())
+                        .avatarUrl(user.getAvatarUrl())
+                        .build()));
+
+        Map<Long, Long> likeCounts = toCountMap(commentLikeRepository.countByCommentIds(commentIds));
+        Map<Long, Long> replyCounts = withReplyCounts
+                ? toCountMap(commentRepository.countRepliesByParentIds(commentIds))
+                : Collections.emptyMap();
+        Set<Long> likedIds = findLikedCommentIds(commentIds);
+
+        return comments.stream()
+                .map(comment -> CommentResponse.builder()
+                        .id(comment.getId())
+                        .parentId(comment.getParentId())
+                        .content(comment.getContent())
+                        .user(users.get(comment.getUser().getId()))
+                        .createdAt(comment.getCreatedAt())
+                        .likeCount(likeCounts.getOrDefault(comment.getId(), 0L))
+                        .isLiked(likedIds.contains(comment.getId()))
+                        .replyCount(withReplyCounts ? replyCounts.getOrDefault(comment.getId(), 0L) : null)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> findLikedCommentIds(Set<Long> commentIds) {
+        Long userId = currentUserResolver.getUserId();
+        if (userId == null) {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<>(commentLikeRepository.findLikedCommentIds(userId, commentIds));
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
 }
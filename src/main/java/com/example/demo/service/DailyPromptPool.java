@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.component.LlmRoutes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of journal writing prompts generated ahead of time, so "give me a
+ * prompt" never waits on the model. Refreshed in the background once a day;
+ * each user gets the same prompt of the pool for the whole day.
+ * Until the first refresh succeeds a single cached prompt is served instead.
+ */
+@Slf4j
+@Component
+public class DailyPromptPool {
+    static final String PROMPT = "Hãy đóng vai là một chuyên gia tâm lý Calmistry. " +
+            "Hãy đưa ra 1 câu hỏi gợi mở hoặc 1 chủ đề viết nhật ký ngắn gọn (dưới 30 từ) " +
+            "giúp người dùng khám phá bản thân hoặc cảm thấy bình yên hơn. " +
+            "Chỉ trả lời câu hỏi/chủ đề đó bằng tiếng Việt, không kèm theo lời dẫn.";
+
+    private final AiChatService aiChatService;
+    private final AiResponseCache aiResponseCache;
+    private final int size;
+
+    private final AtomicReference<List<String>> pool = new AtomicReference<>(List.of());
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    public DailyPromptPool(AiChatService aiChatService, AiResponseCache aiResponseCache,
+            @Value("${ai.prompts.pool-size:10}") int size) {
+        this.aiChatService = aiChatService;
+        this.aiResponseCache = aiResponseCache;
+        this.size = size;
+    }
+
+    public String next(Long userId) {
+        List<String> prompts = pool.get();
+        if (prompts.isEmpty()) {
+            return aiResponseCache.get(AiResponseCache.UseCase.DAILY_PROMPT, PROMPT)
+                    .orElse(AiChatService.FALLBACK_RESPONSE);
+        }
+        int index = Math.floorMod(Objects.hash(userId, LocalDate.now()), prompts.size());
+        return prompts.get(index);
+    }
+
+    /**
+     * Regenerate on a virtual thread: the model calls take a while and must
+     * neither delay startup nor hold the shared scheduler thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ai.prompts.refresh-cron:0 0 3 * * *}")
+    public void scheduleRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("daily-prompt-pool").start(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private void refresh() {
+        // Same prompt, several samples: the model varies its answer, duplicates are dropped
+        Set<String> prompts = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            try {
+                String prompt = aiChatService.generate(LlmRoutes.Route.DAILY_PROMPT, PROMPT);
+                if (prompt != null && !prompt.isBlank()) {
+                    prompts.add(prompt.strip());
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Daily prompt generation failed: {}", e.getMessage());
+            }
+        }
+        // Keep yesterday's pool rather than serving nothing
+        if (!prompts.isEmpty()) {
+            pool.set(List.copyOf(prompts));
+        }
+        log.info("🤖 Daily prompt pool refreshed: {} prompts", pool.get().size());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.demo.service;
 
+import com.example.demo.component.PasswordHasher;
+import com.example.demo.component.RoleCatalog;
 import com.example.demo.dto.request.ExpertRegisterRequest;
 import com.example.demo.dto.response.ExpertRegisterResponse;
 import com.example.demo.entity.ExpertProfile;
@@ -15,9 +17,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -29,11 +30,21 @@ import java.util.Set;
 public class ExpertService {
     UserRepository userRepository;
     RoleRepository roleRepository;
+    RoleCatalog roleCatalog;
     ExpertProfileRepository expertProfileRepository;
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
+    TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Hashed before the transaction, as in AuthenticationService.registerUser:
+     * no pooled connection is held while waiting for the hashing pool.
+     */
     public ExpertRegisterResponse registerExpert(ExpertRegisterRequest request) {
+        String encodedPassword = passwordHasher.encode(request.getPassword());
+        return transactionTemplate.execute(status -> createExpert(request, encodedPassword));
+    }
+
+    private ExpertRegisterResponse createExpert(ExpertRegisterRequest request, String encodedPassword) {
         // Kiểm tra username đã tồn tại chưa
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
             throw new AppException(ErrorCode.USER_EXISTED);
@@ -45,10 +56,11 @@ public class ExpertService {
         }
 
         // Tìm hoặc tạo role EXPERT
-        Role expertRole = roleRepository.findByName("EXPERT")
+        Role expertRole = roleCatalog.findReference("EXPERT")
                 .orElseGet(() -> {
                     Role newRole = new Role();
                     newRole.setName("EXPERT");
+                    roleCatalog.reloadAfterCommit();
                     return roleRepository.save(newRole);
                 });
 
@@ -56,7 +68,7 @@ public class ExpertService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setFullName(request.getFullName());
         user.setIsActive(true);
         user.setPlan(UserPlan.GOLD);
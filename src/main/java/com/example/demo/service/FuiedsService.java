@@ -1,15 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.SubmitFuiedsRequest;
 import com.example.demo.dto.response.FuiedsScoreResponse;
 import com.example.demo.entity.FuiedsResponse;
 import com.example.demo.entity.GamificationEventType;
 import com.example.demo.entity.User;
 import com.example.demo.repository.FuiedsResponseRepository;
-import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +23,7 @@ import java.util.stream.Collectors;
 public class FuiedsService {
 
     private final FuiedsResponseRepository fuiedsResponseRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final com.example.demo.repository.UserStatsRepository userStatsRepository;
     private final GamificationService gamificationService;
 
@@ -102,7 +101,7 @@ public class FuiedsService {
         gamificationService.awardDailySpin(user, GamificationEventType.FUIEDS_SCORE);
 
         log.info("FUIEDS response submitted for user {}: score={}, smoothed={}, goodEnough={}",
-                user.getUsername(), rawScore, smoothedScore, isGoodEnough);
+                user.getId(), rawScore, smoothedScore, isGoodEnough);
 
         return toResponse(response);
     }
@@ -257,13 +256,10 @@ public class FuiedsService {
     }
 
     /**
-     * Get current authenticated user
+     * Lazy reference to the current user: only its id and foreign keys are used here
      */
     private User getCurrentUser() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.getUserReference();
     }
 
     /**
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.component.AiJobHandler;
+import com.example.demo.component.LlmRoutes;
+import com.example.demo.entity.AiJob;
+import com.example.demo.entity.Journal;
+import com.example.demo.repository.JournalRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Writes the AI healing reply of a journal entry (AiJob.Type.JOURNAL_HEALING).
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JournalHealingJobHandler implements AiJobHandler {
+    JournalRepository journalRepository;
+    AiChatService aiChatService;
+
+    /**
+     * Hash of the fields the reply is based on, the dedup key of the job.
+     */
+    public static String contentHash(Journal journal) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Separator keeps ("ab", "c") and ("a", "bc") apart
+            for (String part : new String[] { journal.getTitle(), journal.getContent(), journal.getMood() }) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public AiJob.Type type() {
+        return AiJob.Type.JOURNAL_HEALING;
+    }
+
+    @Override
+    public boolean handle(AiJob job) {
+        Journal journal = journalRepository.findById(job.getSubjectId()).orElse(null);
+        // Deleted, or edited again since: the newer job will answer
+        if (journal == null || !contentHash(journal).equals(job.getContentHash())) {
+            return false;
+        }
+
+        String aiResponseText = generateAiHealingResponse(journal.getTitle(), journal.getContent(), journal.getMood());
+
+        // Reload, the entry may have changed during the LLM call
+        Journal current = journalRepository.findById(job.getSubjectId()).orElse(null);
+        if (current == null || !contentHash(current).equals(job.getContentHash())) {
+            return false;
+        }
+        current.setAiResponse(aiResponseText);
+        journalRepository.save(current);
+        return true;
+    }
+
+    /**
+     * Helper to generate a compassionate AI response for a journal entry
+     */
+    private String generateAiHealingResponse(String title, String content, String mood) {
+        String prompt = String.format(
+                "Nội dung nhật ký: Title: %s, Content: %s, Mood: %s. " +
+                        "Dựa trên nội dung này, hãy viết một lời phản hồi ngắn (2-3 câu), cực kỳ thấu cảm, ấm áp và mang tính chữa lành. "
+                        +
+                        "Hãy đóng vai là một người bạn tri kỷ hoặc chuyên gia tâm lý Calmistry luôn lắng nghe người dùng. "
+                        +
+                        "Ngôn từ phải nhẹ nhàng, chân thành và khích lệ.",
+                title, content, mood);
+        return aiChatService.generate(LlmRoutes.Route.JOURNAL_HEALING, prompt);
+    }
+}
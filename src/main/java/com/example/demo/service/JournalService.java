@@ -1,21 +1,22 @@
 package com.example.demo.service;
 
+import com.example.demo.component.AiJobQueue;
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.CreateJournalRequest;
 import com.example.demo.dto.request.UpdateJournalRequest;
 import com.example.demo.dto.response.JournalResponse;
 import com.example.demo.dto.response.JournalStatsResponse;
+import com.example.demo.entity.AiJob;
 import com.example.demo.entity.GamificationEventType;
 import com.example.demo.entity.Journal;
 import com.example.demo.entity.User;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
 import com.example.demo.repository.JournalRepository;
-import com.example.demo.repository.UserRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,29 +30,20 @@ import java.util.stream.Collectors;
 public class JournalService {
 
     JournalRepository journalRepository;
-    UserRepository userRepository;
-    AiChatService aiChatService;
+    CurrentUserResolver currentUserResolver;
+    AiResponseCache aiResponseCache;
+    DailyPromptPool dailyPromptPool;
+    AiJobQueue aiJobQueue;
     GamificationService gamificationService;
 
-    /**
-     * Get current authenticated user
-     */
-    private User getCurrentUser() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-    }
-
     /**
      * Get all journals for current user with optional filters
      * TEMP: Works without authentication for testing
      */
     public List<JournalResponse> getJournals(String search, String mood) {
-        User user = getCurrentUser();
-        List<Journal> journals = journalRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
-        log.info("Found {} journals for user {}", journals.size(), user.getUsername());
+        Long userId = currentUserResolver.requireUserId();
+        List<Journal> journals = journalRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        log.info("Found {} journals for user {}", journals.size(), userId);
         return journals.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
@@ -61,9 +53,9 @@ public class JournalService {
      * Get single journal by ID (only if user owns it)
      */
     public JournalResponse getJournalById(Long id) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.requireUserId();
 
-        Journal journal = journalRepository.findByIdAndUserId(id, user.getId())
+        Journal journal = journalRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION));
 
         return toResponse(journal);
@@ -74,7 +66,8 @@ public class JournalService {
      */
     @Transactional
     public JournalResponse createJournal(CreateJournalRequest request) {
-        User user = getCurrentUser();
+        // Only needed as a foreign key: no users query
+        User user = currentUserResolver.getUserReference();
 
         Journal journal = new Journal();
         journal.setUser(user);
@@ -85,24 +78,8 @@ public class JournalService {
         journal = journalRepository.save(journal);
         gamificationService.awardDailySpin(user, GamificationEventType.JOURNAL_ENTRY);
 
-        // Generate AI Healing Response asynchronously to prevent blocking response
-        final Long journalId = journal.getId();
-        final String title = request.getTitle();
-        final String content = request.getContent();
-        final String mood = request.getMood();
-
-        java.util.concurrent.CompletableFuture.runAsync(() -> {
-            try {
-                String aiResponseText = generateAiHealingResponse(title, content, mood);
-                Journal savedJournal = journalRepository.findById(journalId).orElse(null);
-                if (savedJournal != null) {
-                    savedJournal.setAiResponse(aiResponseText);
-                    journalRepository.save(savedJournal);
-                }
-            } catch (Exception e) {
-                log.error("Error generating AI response for journal " + journalId, e);
-            }
-        });
+        // AI Healing Response is generated by a background job, not on the request thread
+        aiJobQueue.enqueue(AiJob.Type.JOURNAL_HEALING, journal.getId(), JournalHealingJobHandler.contentHash(journal));
 
         return toResponse(journal);
     }
@@ -112,11 +89,13 @@ public class JournalService {
      */
     @Transactional
     public JournalResponse updateJournal(Long id, UpdateJournalRequest request) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.requireUserId();
 
-        Journal journal = journalRepository.findByIdAndUserId(id, user.getId())
+        Journal journal = journalRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION));
 
+        String previousHash = JournalHealingJobHandler.contentHash(journal);
+
         // Update fields if provided
         if (request.getTitle() != null) {
             journal.setTitle(request.getTitle());
@@ -130,33 +109,20 @@ public class JournalService {
 
         journal = journalRepository.save(journal);
 
-        // Generate AI Healing Response asynchronously
-        final Long journalId = journal.getId();
-        final String title = journal.getTitle();
-        final String content = journal.getContent();
-        final String mood = journal.getMood();
-
-        java.util.concurrent.CompletableFuture.runAsync(() -> {
-            try {
-                String aiResponseText = generateAiHealingResponse(title, content, mood);
-                Journal savedJournal = journalRepository.findById(journalId).orElse(null);
-                if (savedJournal != null) {
-                    savedJournal.setAiResponse(aiResponseText);
-                    journalRepository.save(savedJournal);
-                }
-            } catch (Exception e) {
-                log.error("Error generating AI response for journal " + journalId, e);
-            }
-        });
+        // Only a real change needs a new reply, an unchanged re-save keeps the current one
+        String contentHash = JournalHealingJobHandler.contentHash(journal);
+        if (!contentHash.equals(previousHash)) {
+            aiJobQueue.enqueue(AiJob.Type.JOURNAL_HEALING, journal.getId(), contentHash);
+        }
 
         return toResponse(journal);
     }
 
     @Transactional
     public void deleteJournal(Long id) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.requireUserId();
 
-        Journal journal = journalRepository.findByIdAndUserId(id, user.getId())
+        Journal journal = journalRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION));
 
         journalRepository.delete(journal);
@@ -166,19 +132,16 @@ public class JournalService {
      * Generate a creative daily writing prompt for the user
      */
     public String getAiPrompt() {
-        String prompt = "Hãy đóng vai là một chuyên gia tâm lý Calmistry. " +
-                "Hãy đưa ra 1 câu hỏi gợi mở hoặc 1 chủ đề viết nhật ký ngắn gọn (dưới 30 từ) " +
-                "giúp người dùng khám phá bản thân hoặc cảm thấy bình yên hơn. " +
-                "Chỉ trả lời câu hỏi/chủ đề đó bằng tiếng Việt, không kèm theo lời dẫn.";
-        return aiChatService.chat(prompt);
+        // Pre-generated pool, no model call on the request path
+        return dailyPromptPool.next(currentUserResolver.getUserId());
     }
 
     /**
      * Get mood statistics and AI analysis for the current user
      */
     public JournalStatsResponse getJournalStats() {
-        User user = getCurrentUser();
-        List<Journal> journals = journalRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        Long userId = currentUserResolver.requireUserId();
+        List<Journal> journals = journalRepository.findByUserIdOrderByCreatedAtDesc(userId);
 
         long happyCount = journals.stream().filter(j -> "happy".equals(j.getMood())).count();
         long neutralCount = journals.stream().filter(j -> "neutral".equals(j.getMood())).count();
@@ -194,7 +157,9 @@ public class JournalService {
                             +
                             "Hãy đóng vai là chuyên gia Calmistry, ngôn từ thấu cảm, ấm áp và mang tính định hướng tích cực.",
                     total, happyCount, neutralCount, sadCount);
-            aiAnalysis = aiChatService.chat(prompt);
+            // Same counts give the same prompt, so the analysis is reused until they change
+            aiAnalysis = aiResponseCache.get(AiResponseCache.UseCase.JOURNAL_STATS, prompt)
+                    .orElse(AiChatService.FALLBACK_RESPONSE);
         }
 
         return JournalStatsResponse.builder()
@@ -219,19 +184,4 @@ public class JournalService {
                 .createdAt(journal.getCreatedAt())
                 .build();
     }
-
-    /**
-     * Helper to generate a compassionate AI response for a journal entry
-     */
-    private String generateAiHealingResponse(String title, String content, String mood) {
-        String prompt = String.format(
-                "Nội dung nhật ký: Title: %s, Content: %s, Mood: %s. " +
-                        "Dựa trên nội dung này, hãy viết một lời phản hồi ngắn (2-3 câu), cực kỳ thấu cảm, ấm áp và mang tính chữa lành. "
-                        +
-                        "Hãy đóng vai là một người bạn tri kỷ hoặc chuyên gia tâm lý Calmistry luôn lắng nghe người dùng. "
-                        +
-                        "Ngôn từ phải nhẹ nhàng, chân thành và khích lệ.",
-                title, content, mood);
-        return aiChatService.chat(prompt);
-    }
 }
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.PasswordHasher;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.entity.PasswordResetOtp;
 import com.example.demo.entity.User;
@@ -11,9 +12,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.concurrent.ThreadLocalRandom;
@@ -29,16 +29,32 @@ public class PasswordResetService {
 
     UserRepository userRepository;
     PasswordResetOtpRepository passwordResetOtpRepository;
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
     EmailService emailService;
+    TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // BCrypt (PasswordHasher) always runs outside the transactions below, so waiting
+    // for the hashing pool never holds a pooled connection inside a transaction
     public void requestOtp(String email) {
+        // Hashed before the lookup: unknown emails cost the same, which also avoids enumeration by timing
+        String otp = generateOtp();
+        String otpHash = passwordHasher.encode(otp);
+
+        boolean issued = Boolean.TRUE.equals(transactionTemplate.execute(status -> storeOtp(email, otpHash)));
+        if (!issued) {
+            return;
+        }
+
+        emailService.sendOtpEmail(email, otp, OTP_VALID_MINUTES);
+        log.info("[ForgotPassword] OTP issued for {}", email);
+    }
+
+    private boolean storeOtp(String email, String otpHash) {
         // Always respond as success to avoid email enumeration.
         User user = userRepository.findByEmail(email).orElse(null);
         if (user == null) {
             log.info("[ForgotPassword] Email not found (ignored): {}", email);
-            return;
+            return false;
         }
 
         // Invalidate last OTP (best-effort) to avoid multiple valid codes.
@@ -49,9 +65,6 @@ public class PasswordResetService {
             }
         });
 
-        String otp = generateOtp();
-        String otpHash = passwordEncoder.encode(otp);
-
         PasswordResetOtp record = PasswordResetOtp.builder()
                 .user(user)
                 .otpHash(otpHash)
@@ -59,12 +72,9 @@ public class PasswordResetService {
                 .attempts(0)
                 .build();
         passwordResetOtpRepository.save(record);
-
-        emailService.sendOtpEmail(email, otp, OTP_VALID_MINUTES);
-        log.info("[ForgotPassword] OTP issued for {}", email);
+        return true;
     }
 
-    @Transactional
     public void resetPassword(String email, String otp, String newPassword) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
@@ -87,7 +97,7 @@ public class PasswordResetService {
             throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Bạn đã nhập sai OTP quá nhiều lần. Vui lòng yêu cầu mã mới.");
         }
 
-        boolean ok = passwordEncoder.matches(otp, record.getOtpHash());
+        boolean ok = passwordHasher.matches(otp, record.getOtpHash());
         if (!ok) {
             record.setAttempts((record.getAttempts() == null ? 0 : record.getAttempts()) + 1);
             passwordResetOtpRepository.save(record);
@@ -98,11 +108,14 @@ public class PasswordResetService {
             throw new AppException(ErrorCode.INVALID_PASSWORD);
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String encodedPassword = passwordHasher.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> {
+            user.setPassword(encodedPassword);
+            userRepository.save(user);
 
-        record.setUsedAt(LocalDateTime.now());
-        passwordResetOtpRepository.save(record);
+            record.setUsedAt(LocalDateTime.now());
+            passwordResetOtpRepository.save(record);
+        });
         log.info("[ForgotPassword] Password reset successful for {}", email);
     }
 
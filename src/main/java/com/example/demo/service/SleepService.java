@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.AnswerDTO;
 import com.example.demo.dto.request.SubmitSleepQuizRequest;
 import com.example.demo.dto.response.SleepHistoryResponse;
@@ -11,7 +12,6 @@ import com.example.demo.exception.ErrorCode;
 import com.example.demo.repository.SleepAnswerRepository;
 import com.example.demo.repository.SleepScoreRepository;
 import com.example.demo.repository.SleepSessionRepository;
-import com.example.demo.repository.UserRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -19,7 +19,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,7 +36,7 @@ public class SleepService {
     SleepSessionRepository sleepSessionRepository;
     SleepAnswerRepository sleepAnswerRepository;
     SleepScoreRepository sleepScoreRepository;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     GamificationService gamificationService;
 
     /**
@@ -45,12 +44,8 @@ public class SleepService {
      */
     @Transactional
     public SleepSessionResponse submitSleepQuiz(SubmitSleepQuizRequest request) {
-        // Get authenticated user
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        // Only used as a foreign key and for its id: no users query
+        User user = currentUserResolver.getUserReference();
 
         // Check if session already exists for this date
         if (sleepSessionRepository.existsByUserIdAndRecordDate(user.getId(), request.getRecordDate())) {
@@ -87,15 +82,9 @@ public class SleepService {
      * Get user's sleep history
      */
     public SleepHistoryResponse getSleepHistory(int page, int size) {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-
         Pageable pageable = PageRequest.of(page, size);
-        Page<SleepSession> sessionsPage = sleepSessionRepository.findByUserIdOrderByRecordDateDesc(user.getId(),
-                pageable);
+        Page<SleepSession> sessionsPage = sleepSessionRepository.findByUserIdOrderByRecordDateDesc(
+                currentUserResolver.requireUserId(), pageable);
 
         List<SleepHistoryResponse.SleepHistoryItem> items = sessionsPage.getContent().stream()
                 .map(session -> {
@@ -127,13 +116,8 @@ public class SleepService {
      * Get latest sleep session
      */
     public SleepSessionResponse getLatestSleepSession() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-
-        SleepSession session = sleepSessionRepository.findTopByUserIdOrderByRecordDateDesc(user.getId())
+        SleepSession session = sleepSessionRepository.findTopByUserIdOrderByRecordDateDesc(
+                currentUserResolver.requireUserId())
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION)); // No sessions found
 
         SleepScore score = sleepScoreRepository.findBySessionId(session.getId()).orElse(null);
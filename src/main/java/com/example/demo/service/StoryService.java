@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.StoryCreateRequest;
 import com.example.demo.dto.response.StoryResponse;
 import com.example.demo.entity.GamificationEventType;
@@ -7,11 +8,8 @@ import com.example.demo.entity.Story;
 import com.example.demo.entity.StoryInteraction;
 import com.example.demo.entity.User;
 import com.example.demo.entity.UserStats;
-import com.example.demo.exception.AppException;
-import com.example.demo.exception.ErrorCode;
 import com.example.demo.repository.StoryInteractionRepository;
 import com.example.demo.repository.StoryRepository;
-import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.UserStatsRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +17,6 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,15 +31,15 @@ import java.util.stream.Collectors;
 public class StoryService {
     StoryRepository storyRepository;
     StoryInteractionRepository storyInteractionRepository;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     UserStatsRepository userStatsRepository;
     GamificationService gamificationService;
 
     @Transactional
     public StoryResponse createStory(StoryCreateRequest request) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        // Foreign keys take a reference, the author's name comes from the cached identity
+        User user = currentUserResolver.getUserReference();
+        CurrentUserResolver.Identity author = currentUserResolver.requireIdentity();
 
         Story story = Story.builder()
                 .user(user)
@@ -65,12 +62,13 @@ public class StoryService {
 
         gamificationService.awardDailySpin(user, GamificationEventType.STORY_SHARE);
 
-        return mapToResponse(story, user);
+        // The author just liked it above
+        return mapToResponse(story, author.getFullName(), author.getUsername(), true);
     }
 
     public List<StoryResponse> getStories(int page, int size) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(username).orElse(null);
+        // Reference only: used as a query parameter for the liked check, never loaded
+        User currentUser = currentUserResolver.getUserId() != null ? currentUserResolver.getUserReference() : null;
 
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Story> storyPage = storyRepository.findAll(pageRequest);
@@ -82,9 +80,7 @@ public class StoryService {
 
     @Transactional
     public void likeStory(Long storyId) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        User user = currentUserResolver.getUserReference();
 
         Story story = storyRepository.findById(storyId)
                 .orElseThrow(() -> new RuntimeException("Story not found"));
@@ -143,9 +139,13 @@ public class StoryService {
                     story, currentUser, StoryInteraction.InteractionType.LIKE);
         }
 
-        String authorName = story.getIsAnonymous() ? "Ẩn danh" : story.getUser().getFullName();
+        return mapToResponse(story, story.getUser().getFullName(), story.getUser().getUsername(), isLiked);
+    }
+
+    private StoryResponse mapToResponse(Story story, String fullName, String username, boolean isLiked) {
+        String authorName = story.getIsAnonymous() ? "Ẩn danh" : fullName;
         if (authorName == null)
-            authorName = story.getUser().getUsername();
+            authorName = username;
 
         String avatar = story.getIsAnonymous() ? "bi-incognito" : "bi-person-circle";
 
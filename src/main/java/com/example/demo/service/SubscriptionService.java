@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.response.GoldCheckoutResponse;
 import com.example.demo.entity.SubscriptionOrder;
 import com.example.demo.entity.User;
@@ -14,7 +15,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.payos.PayOS;
@@ -34,6 +34,7 @@ public class SubscriptionService {
 
     PayOS payOS;
     UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     SubscriptionOrderRepository subscriptionOrderRepository;
     WorkshopBookingRepository workshopBookingRepository;
 
@@ -43,11 +44,8 @@ public class SubscriptionService {
 
     @Transactional
     public GoldCheckoutResponse createGoldCheckout(String voucherCode) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-
-        if (isGoldEffective(user)) {
+        // The guard reads the cached identity, the order only needs the user as a foreign key
+        if (isGoldEffective(currentUserResolver.requireIdentity())) {
             throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Tài khoản của bạn đã là gói Vàng.");
         }
 
@@ -85,7 +83,7 @@ public class SubscriptionService {
         }
 
         SubscriptionOrder order = SubscriptionOrder.builder()
-                .user(user)
+                .user(currentUserResolver.getUserReference())
                 .orderCode(orderCode)
                 .amount(GOLD_PRICE_VND)
                 .voucherCode(sanitizeVoucherCode(voucherCode))
@@ -101,16 +99,14 @@ public class SubscriptionService {
                 .build();
     }
 
-    private boolean isGoldEffective(User user) {
-        if (user.getRoles() != null) {
-            boolean isAdminOrExpert = user.getRoles().stream().anyMatch(r -> {
-                String name = r.getName();
-                return "ADMIN".equalsIgnoreCase(name) || "EXPERT".equalsIgnoreCase(name)
-                        || "ROLE_ADMIN".equalsIgnoreCase(name) || "ROLE_EXPERT".equalsIgnoreCase(name);
-            });
+    private boolean isGoldEffective(CurrentUserResolver.Identity identity) {
+        if (identity.getRoles() != null) {
+            boolean isAdminOrExpert = identity.getRoles().stream().anyMatch(name -> "ADMIN".equalsIgnoreCase(name)
+                    || "EXPERT".equalsIgnoreCase(name)
+                    || "ROLE_ADMIN".equalsIgnoreCase(name) || "ROLE_EXPERT".equalsIgnoreCase(name));
             if (isAdminOrExpert) return true;
         }
-        return user.getPlan() == UserPlan.GOLD;
+        return identity.getPlan() == UserPlan.GOLD;
     }
 
     private long generateUniqueOrderCode() {
@@ -162,6 +158,7 @@ public class SubscriptionService {
                 if (user != null) {
                     user.setPlan(UserPlan.GOLD);
                     userRepository.save(user);
+                    currentUserResolver.evict(user.getId());
                     log.info("✅ SUCCESS: User '{}' upgraded to GOLD.", user.getUsername());
                 } else {
                     log.error("❌ Order {} has NO user associated!", orderCode);
@@ -1,5 +1,7 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.component.RoleCatalog;
 import com.example.demo.dto.request.UserOnboardingRequest;
 import com.example.demo.dto.response.UserResponse;
 import com.example.demo.entity.User;
@@ -7,13 +9,12 @@ import com.example.demo.entity.UserStats;
 import com.example.demo.entity.UserPlan;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
-import com.example.demo.repository.RoleRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.UserStatsRepository;
+import com.example.demo.util.PlanUtil;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
@@ -26,16 +27,13 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserService {
     UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     UserStatsRepository userStatsRepository;
-    RoleRepository roleRepository;
+    RoleCatalog roleCatalog;
 
     @org.springframework.transaction.annotation.Transactional
     public UserResponse getMyInfo() {
-        var context = SecurityContextHolder.getContext();
-        String name = context.getAuthentication().getName();
-
-        User user = userRepository.findByUsername(name)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        User user = currentUserResolver.requireUser();
 
         // Update last login date if it's a new day or null
         if (user.getLastLoginDate() == null
@@ -72,37 +70,31 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
-        com.example.demo.entity.Role role = roleRepository.findByName(roleName)
+        com.example.demo.entity.Role role = roleCatalog.findReference(roleName)
                 .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
 
         user.setRoles(new HashSet<>(Set.of(role)));
+        currentUserResolver.evict(userId);
 
         return mapToResponse(userRepository.save(user));
     }
 
     @org.springframework.transaction.annotation.Transactional
     public UserResponse updateMyInfo(com.example.demo.dto.request.UserUpdateRequest request) {
-        var context = SecurityContextHolder.getContext();
-        String name = context.getAuthentication().getName();
-
-        User user = userRepository.findByUsername(name)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        User user = currentUserResolver.requireUser();
 
         if (request.getFullName() != null) user.setFullName(request.getFullName());
         if (request.getPhoneNumber() != null) user.setPhoneNumber(request.getPhoneNumber());
         if (request.getAddress() != null) user.setAddress(request.getAddress());
         if (request.getAvatarUrl() != null) user.setAvatarUrl(request.getAvatarUrl());
+        currentUserResolver.evict(user.getId());
 
         return mapToResponse(userRepository.save(user));
     }
 
     @org.springframework.transaction.annotation.Transactional
     public UserResponse completeOnboarding(UserOnboardingRequest request) {
-        var context = SecurityContextHolder.getContext();
-        String name = context.getAuthentication().getName();
-
-        User user = userRepository.findByUsername(name)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        User user = currentUserResolver.requireUser();
 
         user.setGender(request.getGender());
         user.setDateOfBirth(request.getDateOfBirth());
@@ -163,16 +155,6 @@ public class UserService {
     }
 
     private UserPlan determineEffectivePlan(User user) {
-        if (user.getRoles() != null) {
-            boolean isAdminOrExpert = user.getRoles().stream().anyMatch(r -> {
-                String name = r.getName();
-                return "ADMIN".equalsIgnoreCase(name) || "EXPERT".equalsIgnoreCase(name)
-                        || "ROLE_ADMIN".equalsIgnoreCase(name) || "ROLE_EXPERT".equalsIgnoreCase(name);
-            });
-            if (isAdminOrExpert) return UserPlan.GOLD;
-        }
-
-        if (user.getPlan() == null) return UserPlan.GOLD; // legacy users (pre-migration)
-        return user.getPlan();
+        return PlanUtil.effectivePlan(user);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.component.CurrentUserResolver;
 import com.example.demo.dto.request.WorkshopRequest;
 import com.example.demo.dto.response.WorkshopResponse;
 import com.example.demo.entity.User;
@@ -7,7 +8,6 @@ import com.example.demo.entity.Workshop;
 import com.example.demo.entity.WorkshopBooking;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
-import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.WorkshopBookingRepository;
 import com.example.demo.repository.WorkshopRepository;
 import lombok.AccessLevel;
@@ -15,7 +15,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,7 +36,7 @@ import java.util.stream.Collectors;
 public class WorkshopService {
     WorkshopRepository workshopRepository;
     WorkshopBookingRepository workshopBookingRepository;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     com.example.demo.repository.UserVoucherRepository userVoucherRepository;
     PayOS payOS;
 
@@ -71,20 +70,8 @@ public class WorkshopService {
     }
 
     public List<WorkshopResponse> getUpcomingWorkshops() {
-        String username = null;
-        try {
-            if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                username = SecurityContextHolder.getContext().getAuthentication().getName();
-            }
-        } catch (Exception e) {
-            // ignore
-        }
-
-        User user = null;
-        if (username != null && !username.equals("anonymousUser")) {
-            user = userRepository.findByUsername(username).orElse(null);
-        }
-        final User finalUser = user;
+        // Reference only: used as a query parameter for the booked check, never loaded
+        final User finalUser = currentUserResolver.getUserId() != null ? currentUserResolver.getUserReference() : null;
 
         return workshopRepository.findByStatus(Workshop.WorkshopStatus.UPCOMING).stream()
                 .map(workshop -> {
@@ -146,11 +133,10 @@ public class WorkshopService {
 
     @Transactional
     public WorkshopResponse bookWorkshop(Long workshopId, String voucherCode) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        log.info("🔍 [Booking] User {} attempting to book workshop {} with voucher {}", username, workshopId, voucherCode);
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        // Foreign key and ownership checks only, the users row is never read
+        User user = currentUserResolver.getUserReference();
+        log.info("🔍 [Booking] User {} attempting to book workshop {} with voucher {}", user.getId(), workshopId,
+                voucherCode);
 
         Workshop workshop = workshopRepository.findById(workshopId)
                 .orElseThrow(() -> new AppException(ErrorCode.WORKSHOP_NOT_FOUND));
@@ -198,7 +184,7 @@ public class WorkshopService {
                 .bookedAt(LocalDateTime.now())
                 .status(initialStatus)
                 .build();
-        log.info("📝 [Booking] Booking entity prepared for user {}", username);
+        log.info("📝 [Booking] Booking entity prepared for user {}", user.getId());
 
         String checkoutUrl = null;
 
@@ -256,7 +242,7 @@ public class WorkshopService {
 
         workshopBookingRepository.save(booking);
 
-        log.info("✅ User {} booked workshop {}. Status: {}", username, workshop.getTitle(), booking.getStatus());
+        log.info("✅ User {} booked workshop {}. Status: {}", user.getId(), workshop.getTitle(), booking.getStatus());
         WorkshopResponse response = mapToResponse(workshop);
         response.setCheckoutUrl(checkoutUrl);
         return response;
@@ -264,9 +250,7 @@ public class WorkshopService {
 
     @Transactional
     public void cancelBooking(Long workshopId) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        User user = currentUserResolver.getUserReference();
 
         Workshop workshop = workshopRepository.findById(workshopId)
                 .orElseThrow(() -> new AppException(ErrorCode.WORKSHOP_NOT_FOUND));
@@ -285,7 +269,7 @@ public class WorkshopService {
             workshopRepository.save(workshop);
         }
 
-        log.info("✅ User {} cancelled booking for workshop {}", username, workshop.getTitle());
+        log.info("✅ User {} cancelled booking for workshop {}", user.getId(), workshop.getTitle());
     }
 
     private WorkshopResponse mapToResponse(Workshop workshop) {
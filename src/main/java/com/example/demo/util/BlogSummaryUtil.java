@@ -0,0 +1,61 @@
+package com.example.demo.util;
+
+import com.example.demo.entity.Blog;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the card fields of a blog (excerpt, reading time, cover image) from its content.
+ */
+public class BlogSummaryUtil {
+    private static final int EXCERPT_LENGTH = 200;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private static final Pattern HTML_TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static void apply(Blog blog) {
+        blog.setExcerpt(excerpt(blog.getContent()));
+        blog.setReadingTimeMinutes(readingTimeMinutes(blog.getContent()));
+        blog.setCoverImageUrl(coverImage(blog.getImageUrls()));
+    }
+
+    private static String plainText(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = HTML_TAGS.matcher(content).replaceAll(" ")
+                .replace("&nbsp;", " ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    public static String excerpt(String content) {
+        String text = plainText(content);
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        // Cut on the last word boundary so we never split a word
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "…";
+    }
+
+    public static int readingTimeMinutes(String content) {
+        String text = plainText(content);
+        if (text.isEmpty()) {
+            return 1;
+        }
+        int words = WHITESPACE.split(text).length;
+        return Math.max(1, (int) Math.ceil(words / (double) WORDS_PER_MINUTE));
+    }
+
+    public static String coverImage(List<String> imageUrls) {
+        if (imageUrls == null) {
+            return null;
+        }
+        return imageUrls.stream()
+                .filter(url -> url != null && !url.isBlank())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.util;
+
+import java.time.Duration;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ * <p>
+ * CLOSED: calls pass, failureThreshold failures in a row open the circuit.
+ * OPEN: calls are refused for openDuration. HALF_OPEN: one probe call is let
+ * through; its success closes the circuit, its failure opens it again.
+ * Each admitted call gets a {@link Ticket} to report its outcome with, so only
+ * the probe's own outcome frees the probe slot. Calls that ended without
+ * telling anything about the remote side (cancelled, bad request) should
+ * report {@link #onIgnored} so a probe slot is not lost.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Answer of {@link #tryAcquire}: allowed when waitNanos is 0, probe when the
+     * call is the single one let through while HALF_OPEN.
+     */
+    public record Ticket(long waitNanos, boolean probe) {
+        private static final Ticket ALLOWED = new Ticket(0, false);
+        private static final Ticket PROBE = new Ticket(0, true);
+
+        public boolean allowed() {
+            return waitNanos <= 0;
+        }
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Admits the call, or refuses it with the nanos until the next probe.
+     */
+    public synchronized Ticket tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            long wait = openedAt + openNanos - nowNanos;
+            if (wait > 0) {
+                return new Ticket(wait, false);
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return new Ticket(openNanos, false);
+            }
+            probeInFlight = true;
+            return Ticket.PROBE;
+        }
+        return Ticket.ALLOWED;
+    }
+
+    public synchronized void onSuccess(Ticket ticket) {
+        releaseProbe(ticket);
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure(Ticket ticket, long nowNanos) {
+        releaseProbe(ticket);
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nowNanos;
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized void onIgnored(Ticket ticket) {
+        releaseProbe(ticket);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // A call admitted before the circuit opened must not free the slot of the probe still running
+    private void releaseProbe(Ticket ticket) {
+        if (ticket.probe()) {
+            probeInFlight = false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.util;
+
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserPlan;
+
+public class PlanUtil {
+    /**
+     * Plan the user is treated as having: ADMIN / EXPERT accounts and legacy
+     * users without a plan get GOLD, everyone else their stored plan.
+     */
+    public static UserPlan effectivePlan(User user) {
+        if (user.getRoles() != null) {
+            boolean isAdminOrExpert = user.getRoles().stream().anyMatch(r -> {
+                String name = r.getName();
+                return "ADMIN".equalsIgnoreCase(name) || "EXPERT".equalsIgnoreCase(name)
+                        || "ROLE_ADMIN".equalsIgnoreCase(name) || "ROLE_EXPERT".equalsIgnoreCase(name);
+            });
+            if (isAdminOrExpert) return UserPlan.GOLD;
+        }
+
+        if (user.getPlan() == null) return UserPlan.GOLD; // legacy users (pre-migration)
+        return user.getPlan();
+    }
+}
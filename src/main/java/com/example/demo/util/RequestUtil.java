@@ -0,0 +1,15 @@
+package com.example.demo.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class RequestUtil {
+    /**
+     * Client IP to key limits and dedupe on. With server.forward-headers-strategy=native,
+     * Tomcat's RemoteIpValve has already replaced the remote address with the
+     * rightmost X-Forwarded-For hop not appended by a trusted proxy
+     * (server.tomcat.remoteip.internal-proxies), so hops the client wrote itself are ignored.
+     */
+    public static String clientAddress(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds Vietnamese text to plain lowercase ASCII letters ("Giấc Ngủ" -> "giac ngu").
+ * Shared by slug generation and blog search so both agree on how a word is spelled.
+ */
+public class TextFoldingUtil {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        // "đ" has no combining form in NFD, map it explicitly
+        return DIACRITICS.matcher(normalized).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket: capacity tokens, refilled evenly over period.
+ * <p>
+ * Implemented as GCRA, so the whole state is one long (the "theoretical arrival
+ * time" in nanos) updated with CAS; no timestamps + counters to keep consistent.
+ * A bucket whose TAT is in the past is full, which is what lets the caller drop
+ * idle buckets without changing behaviour.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong tat;
+
+    public TokenBucket(int capacity, Duration period, long nowNanos) {
+        this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstNanos = intervalNanos * capacity;
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token. Returns 0 when allowed, otherwise the nanos until a token is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
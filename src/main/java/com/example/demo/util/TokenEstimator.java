@@ -0,0 +1,34 @@
+package com.example.demo.util;
+
+/**
+ * Cheap local estimate of how many model tokens a text costs, for budgeting
+ * prompt size without running a real tokenizer.
+ * <p>
+ * BPE vocabularies average about 4 characters per token for ASCII text;
+ * accented Vietnamese and other non-ASCII characters split much more, so
+ * they are counted at roughly one token each. Errs on the high side.
+ */
+public class TokenEstimator {
+    // Role markers and separators the API adds around every message
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    public static int estimateMessage(String text) {
+        return estimate(text) + MESSAGE_OVERHEAD;
+    }
+}
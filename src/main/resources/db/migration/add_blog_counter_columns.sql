@@ -0,0 +1,20 @@
+-- Blog Counter Columns Migration
+-- Denormalized like/comment counts, maintained by BlogCounterBuffer
+
+ALTER TABLE blogs
+ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0,
+ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- Remove duplicate interactions before adding the unique key (keep the oldest row)
+DELETE i1 FROM blog_interactions i1
+JOIN blog_interactions i2
+  ON i1.user_id = i2.user_id AND i1.blog_id = i2.blog_id
+ AND i1.interaction_type = i2.interaction_type AND i1.id > i2.id;
+
+ALTER TABLE blog_interactions
+ADD CONSTRAINT uk_blog_interactions_user_blog_type UNIQUE (user_id, blog_id, interaction_type);
+
+-- Backfill exact counts (then kept exact by the nightly reconciliation job)
+UPDATE blogs b SET
+  b.like_count = (SELECT COUNT(*) FROM blog_interactions i WHERE i.blog_id = b.id AND i.interaction_type = 'LIKE'),
+  b.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.blog_id = b.id);
@@ -0,0 +1,9 @@
+-- Blog Keyset Pagination Indexes
+-- Feed pages seek on (created_at, id), with status / expert_id as equality prefix
+
+CREATE INDEX idx_blogs_created_id ON blogs (created_at, id);
+CREATE INDEX idx_blogs_status_created_id ON blogs (status, created_at, id);
+CREATE INDEX idx_blogs_expert_created_id ON blogs (expert_id, created_at, id);
+
+-- Verify the changes
+SHOW INDEX FROM blogs;
@@ -0,0 +1,8 @@
+-- Blog Summary Columns Migration
+-- Write-time excerpt / cover image / reading time for list endpoints.
+-- Existing rows are filled in by BlogSummaryBackfill on startup.
+
+ALTER TABLE blogs
+ADD COLUMN IF NOT EXISTS excerpt VARCHAR(300) NULL,
+ADD COLUMN IF NOT EXISTS cover_image_url VARCHAR(500) NULL,
+ADD COLUMN IF NOT EXISTS reading_time_minutes INT NULL;
@@ -0,0 +1,7 @@
+-- Blog Search Index Resync
+-- Every instance re-reads the blogs changed since its last resync, seeking on (updated_at, id)
+
+CREATE INDEX idx_blogs_updated_id ON blogs (updated_at, id);
+
+-- Verify the changes
+SHOW INDEX FROM blogs;
@@ -0,0 +1,5 @@
+-- Blog View Count Default
+-- view_count is no longer written on INSERT (BlogViewTracker updates it), let MySQL default it
+
+UPDATE blogs SET view_count = 0 WHERE view_count IS NULL;
+ALTER TABLE blogs MODIFY COLUMN view_count INT DEFAULT 0;
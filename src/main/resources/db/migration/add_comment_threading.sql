@@ -0,0 +1,12 @@
+-- Comment Threading Migration
+-- One-level reply threads and keyset pagination indexes for comments
+
+ALTER TABLE comments
+ADD COLUMN IF NOT EXISTS parent_id BIGINT NULL;
+
+CREATE INDEX idx_comments_blog_created_id ON comments (blog_id, created_at, id);
+CREATE INDEX idx_comments_blog_parent_created_id ON comments (blog_id, parent_id, created_at, id);
+CREATE INDEX idx_comments_parent_created_id ON comments (parent_id, created_at, id);
+
+-- Like counts / liked-set per page are grouped by comment
+CREATE INDEX idx_comment_likes_comment_user ON comment_likes (comment_id, user_id);
@@ -0,0 +1,11 @@
+-- Invalidated Token Revocation Migration
+-- revoked_at drives the incremental refresh of RevokedTokenStore, expiry_time the purge
+
+ALTER TABLE invalidated_tokens
+ADD COLUMN IF NOT EXISTS revoked_at DATETIME(6) NULL;
+
+CREATE INDEX idx_invalidated_tokens_revoked_at ON invalidated_tokens (revoked_at);
+CREATE INDEX idx_invalidated_tokens_expiry_time ON invalidated_tokens (expiry_time);
+
+-- Rows past their expiry can never be presented again
+DELETE FROM invalidated_tokens WHERE expiry_time < NOW();
@@ -0,0 +1,12 @@
+-- Multi-turn AI chat memory (ChatMemory)
+-- Recent turns are read per user newest first; older turns live in one summary row per user
+
+CREATE INDEX idx_ai_chat_logs_user_created ON ai_chat_logs (user_id, created_at);
+
+CREATE TABLE IF NOT EXISTS ai_chat_summaries (
+    user_id BIGINT PRIMARY KEY,
+    summary TEXT NOT NULL,
+    summarized_until_id BIGINT NOT NULL,
+    version BIGINT NULL,
+    updated_at DATETIME(6) NULL
+);
@@ -0,0 +1,19 @@
+-- Durable queue for background LLM calls (AiJobQueue)
+-- One row per (type, subject, content hash); status + next_attempt_at drive polling
+
+CREATE TABLE IF NOT EXISTS ai_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    subject_id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    locked_until DATETIME(6) NULL,
+    last_error VARCHAR(1000) NULL,
+    created_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NULL,
+    CONSTRAINT uk_ai_jobs_subject_hash UNIQUE (type, subject_id, content_hash)
+);
+
+CREATE INDEX idx_ai_jobs_status_next_attempt ON ai_jobs (status, next_attempt_at);
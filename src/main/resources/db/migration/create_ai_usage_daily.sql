@@ -0,0 +1,19 @@
+-- Per-user daily model usage (AiUsageMeter) and token counts on chat logs
+
+CREATE TABLE IF NOT EXISTS ai_usage_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    usage_date DATE NOT NULL,
+    calls BIGINT NOT NULL DEFAULT 0,
+    prompt_tokens BIGINT NOT NULL DEFAULT 0,
+    completion_tokens BIGINT NOT NULL DEFAULT 0,
+    latency_ms BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_ai_usage_daily_user_date UNIQUE (user_id, usage_date)
+);
+
+CREATE INDEX idx_ai_usage_daily_date ON ai_usage_daily (usage_date);
+
+ALTER TABLE ai_chat_logs
+    ADD COLUMN prompt_tokens INT NULL,
+    ADD COLUMN completion_tokens INT NULL,
+    ADD COLUMN latency_ms INT NULL;
@@ -0,0 +1,117 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Blog;
+import com.example.demo.entity.BlogCategory;
+import com.example.demo.service.BlogSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BlogSearchIndex} against the previous search path over a synthetic
+ * corpus of 100k posts. The previous path was LOWER(title) LIKE '%q%' on
+ * blogs, a full scan; it is reproduced here as an in-memory scan of the
+ * titles, which is a lower bound for what MySQL pays (no I/O, no network),
+ * and unlike the index it neither looks at content nor folds diacritics.
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.demo.benchmark.BlogSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BlogSearchBenchmark {
+    private static final String[] WORDS = {
+            "giấc", "ngủ", "lo", "âu", "trầm", "cảm", "thiền", "hơi", "thở", "căng", "thẳng", "gia", "đình",
+            "công", "việc", "bạn", "bè", "tình", "yêu", "cô", "đơn", "hạnh", "phúc", "chữa", "lành", "cảm",
+            "xúc", "buổi", "sáng", "đêm", "thói", "quen", "tập", "luyện", "ăn", "uống", "nghỉ", "ngơi",
+            "sức", "khỏe", "tinh", "thần", "chuyên", "gia", "tâm", "lý", "trị", "liệu", "nhật", "ký" };
+    private static final int TITLE_WORDS = 6;
+    private static final int CONTENT_WORDS = 40;
+
+    @Param({ "100000" })
+    private int posts;
+
+    @Param({ "giac ngu", "chuyen gia tam ly" })
+    private String query;
+
+    private BlogSearchIndex index;
+    private List<String> titles;
+    private String likePattern;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new BlogSearchIndex(null, Duration.ofMinutes(1));
+        titles = new ArrayList<>(posts);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (long id = 1; id <= posts; id++) {
+            BlogCategory category = new BlogCategory();
+            category.setId(1 + id % 8);
+            Blog blog = new Blog();
+            blog.setId(id);
+            blog.setTitle(sentence(random, TITLE_WORDS));
+            blog.setContent(sentence(random, CONTENT_WORDS));
+            blog.setCategory(category);
+            blog.setStatus(Blog.BlogStatus.PUBLISHED);
+            blog.setCreatedAt(start.plusMinutes(id));
+            // No transaction here, so the post is indexed right away
+            index.indexAfterCommit(blog);
+            titles.add(blog.getTitle());
+        }
+        // The LIKE path only matched the accented spelling, give it that one
+        likePattern = "giac ngu".equals(query) ? "giấc ngủ" : "chuyên gia tâm lý";
+    }
+
+    @Benchmark
+    public BlogSearchIndex.SearchHits bm25Index() {
+        return index.search(query, null, Blog.BlogStatus.PUBLISHED, 0, 20);
+    }
+
+    @Benchmark
+    public List<Integer> titleLikeScan() {
+        List<Integer> hits = new ArrayList<>();
+        for (int i = 0; i < titles.size(); i++) {
+            if (titles.get(i).toLowerCase(Locale.ROOT).contains(likePattern)) {
+                hits.add(i);
+            }
+        }
+        return hits.size() > 20 ? hits.subList(0, 20) : hits;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlogSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.configuration.RateLimitFilter;
+import com.example.demo.configuration.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RateLimitFilter} per request on the uncontended path: a path
+ * no rule matches, and a throttled path whose bucket always has tokens. The
+ * target is under 1µs for both. Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.demo.benchmark.RateLimitFilterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest unthrottled;
+    private MockHttpServletRequest throttled;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Limit perIp = new RateLimitProperties.Limit();
+        // One token per nanosecond: never rejects, so only the bookkeeping is measured
+        perIp.setCapacity(1_000_000_000);
+        perIp.setPeriod(Duration.ofSeconds(1));
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("login");
+        rule.setPaths(List.of("/auth/token", "/auth/password/**"));
+        rule.setPerIp(perIp);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        unthrottled = new MockHttpServletRequest("GET", "/blogs/published");
+        unthrottled.setRemoteAddr("203.0.113.7");
+        throttled = new MockHttpServletRequest("POST", "/auth/token");
+        throttled.setRemoteAddr("203.0.113.7");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void unthrottledPath() throws Exception {
+        filter.doFilter(unthrottled, response, CHAIN);
+    }
+
+    @Benchmark
+    public void throttledPathAllowed() throws Exception {
+        filter.doFilter(throttled, response, CHAIN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
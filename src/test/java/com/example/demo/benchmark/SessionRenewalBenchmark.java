@@ -0,0 +1,219 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.component.PasswordHasher;
+import com.example.demo.component.RevokedTokenStore;
+import com.example.demo.component.RoleCatalog;
+import com.example.demo.dto.request.AuthenticationRequest;
+import com.example.demo.dto.request.RefreshRequest;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserPlan;
+import com.example.demo.repository.InvalidatedTokenRepository;
+import com.example.demo.repository.RoleRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AuthenticationService;
+import com.example.demo.service.GamificationService;
+import com.nimbusds.jose.JOSEException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Load test for session renewal: how many renewals per second all cores
+ * sustain over a population of signed-in sessions when each one re-logs in
+ * (AuthenticationService.authenticate: BCrypt on the hashing pool + token
+ * signing, the situation before /auth/refresh) versus when it refreshes
+ * (AuthenticationService.refreshToken: HS512 verify, rotation, signing). Both
+ * run the real service, PasswordHasher, RoleCatalog and RevokedTokenStore;
+ * only the repositories are in-memory stubs, so database latency is left out
+ * and the scores are the CPU side. With N sessions renewing once per
+ * jwt.valid-duration, CPU seconds per hour are N / (renewals per second), so
+ * the ratio of the two scores is the drop in login CPU. Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.demo.benchmark.SessionRenewalBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SessionRenewalBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String SIGNER_KEY = "benchmark-signer-key-benchmark-signer-key-benchmark-signer-key-!";
+
+    @Param({ "10000", "100000" })
+    private int sessions;
+
+    private User[] users;
+    private AtomicReferenceArray<String> tokens;
+    private UserRepository userRepository;
+    private RoleCatalog roleCatalog;
+    private PasswordHasher passwordHasher;
+    private GamificationService gamificationService;
+    private AuthenticationService authenticationService;
+
+    @Setup
+    public void setUp() {
+        // The service logs every login at INFO; keep the console out of the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        // auth.hashing.bcrypt-strength default; every user shares one hash, the verify cost is the same
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        Role userRole = Role.builder().id(1L).name("USER").build();
+
+        users = new User[sessions];
+        Map<String, User> usersByEmail = new HashMap<>();
+        for (int i = 0; i < sessions; i++) {
+            User user = User.builder()
+                    .id((long) i + 1)
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password(passwordHash)
+                    .plan(UserPlan.SILVER)
+                    .isOnboarded(true)
+                    .roles(Set.of(userRole))
+                    .build();
+            users[i] = user;
+            usersByEmail.put(user.getEmail(), user);
+        }
+
+        userRepository = stub(UserRepository.class, Map.of(
+                "findByEmail", args -> Optional.ofNullable(usersByEmail.get((String) args[0])),
+                "findById", args -> Optional.of(users[(int) ((Long) args[0] - 1)])));
+        roleCatalog = new RoleCatalog(stub(RoleRepository.class, Map.of(
+                "findAllWithPermissions", args -> List.of(userRole))));
+        roleCatalog.reload();
+
+        // auth.hashing defaults, with a queue deep enough that no login is rejected with 429
+        passwordHasher = new PasswordHasher(passwordEncoder, new SimpleMeterRegistry(), 0, 1024, 4096,
+                Duration.ofMinutes(1), Duration.ofSeconds(2));
+        // Already awarded today: the steady state for a session renewing several times a day
+        gamificationService = mock(GamificationService.class, withSettings().stubOnly());
+
+        // Every session starts with a token issued by the service itself
+        AuthenticationService issuer = newAuthenticationService();
+        tokens = new AtomicReferenceArray<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            tokens.set(i, ReflectionTestUtils.invokeMethod(issuer, "generateToken", users[i]));
+        }
+    }
+
+    // Revoked jtis are also kept in memory by RevokedTokenStore; start each iteration from an empty one
+    @Setup(Level.Iteration)
+    public void newIteration() {
+        authenticationService = newAuthenticationService();
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public String reLogin() {
+        int session = ThreadLocalRandom.current().nextInt(sessions);
+        String token = authenticationService.authenticate(
+                new AuthenticationRequest(users[session].getEmail(), PASSWORD)).getToken();
+        tokens.set(session, token);
+        return token;
+    }
+
+    @Benchmark
+    public String refresh() throws JOSEException, ParseException {
+        int session = ThreadLocalRandom.current().nextInt(sessions);
+        String token = authenticationService.refreshToken(new RefreshRequest(tokens.get(session))).getToken();
+        tokens.set(session, token);
+        return token;
+    }
+
+    private AuthenticationService newAuthenticationService() {
+        // Table side of rotation: no jti is replayed here, so every insert wins
+        InvalidatedTokenRepository invalidatedTokenRepository = stub(InvalidatedTokenRepository.class, Map.of(
+                "existsById", args -> false,
+                "insertIfAbsent", args -> 1));
+        RevokedTokenStore revokedTokenStore = new RevokedTokenStore(invalidatedTokenRepository, 100000, 0.001);
+
+        AuthenticationService service = new AuthenticationService(userRepository, roleCatalog, revokedTokenStore,
+                passwordHasher, gamificationService, null, new TransactionTemplate(new NoOpTransactionManager()));
+        // jwt.* defaults of application.yaml
+        ReflectionTestUtils.setField(service, "SIGNER_KEY", SIGNER_KEY);
+        ReflectionTestUtils.setField(service, "VALID_DURATION", 3600L);
+        ReflectionTestUtils.setField(service, "REFRESHABLE_DURATION", 36000L);
+        return service;
+    }
+
+    // Lock-free stand-in for a Spring Data repository, unlike a Mockito mock under many threads
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] { repositoryType },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return answer.apply(args);
+                });
+    }
+
+    // Service code opens transactions through TransactionTemplate; there is no database to commit to
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SessionRenewalBenchmark.class.getSimpleName()).build()).run();
+    }
+}
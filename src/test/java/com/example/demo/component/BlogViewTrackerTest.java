@@ -0,0 +1,81 @@
+package com.example.demo.component;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BlogViewTrackerTest {
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BlogViewTracker blogViewTracker;
+
+    @BeforeEach
+    void setUp() {
+        blogViewTracker = new BlogViewTracker(jdbcTemplate, meterRegistry, 3);
+    }
+
+    @Test
+    void countsEachViewerOncePerWindow() {
+        blogViewTracker.recordView(1L, "user:7");
+        blogViewTracker.recordView(1L, "user:7");
+        blogViewTracker.recordView(1L, "ip:10.0.0.1");
+        blogViewTracker.recordView(2L, "user:7");
+
+        assertThat(blogViewTracker.pendingViews(1L)).isEqualTo(2);
+        assertThat(blogViewTracker.pendingViews(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void fullWindowRotatesEarlyInsteadOfDroppingViews() {
+        for (int i = 0; i < 10; i++) {
+            blogViewTracker.recordView(1L, "ip:10.0.0." + i);
+        }
+
+        assertThat(blogViewTracker.pendingViews(1L)).isEqualTo(10);
+        assertThat(meterRegistry.counter("blog.views.window.early_rotations").count()).isPositive();
+        // Recent viewers are still in the current or previous window
+        blogViewTracker.recordView(1L, "ip:10.0.0.9");
+        assertThat(blogViewTracker.pendingViews(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void viewsBeingFlushedStillCount() {
+        blogViewTracker.recordView(1L, "user:7");
+        AtomicLong seenDuringFlush = new AtomicLong(-1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            seenDuringFlush.set(blogViewTracker.pendingViews(1L));
+            return new int[] { 1 };
+        });
+
+        blogViewTracker.flush();
+
+        assertThat(seenDuringFlush.get()).isEqualTo(1);
+        assertThat(blogViewTracker.pendingViews(1L)).isZero();
+    }
+
+    @Test
+    void failedFlushKeepsTheViews() {
+        blogViewTracker.recordView(1L, "user:7");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        blogViewTracker.flush();
+
+        assertThat(blogViewTracker.pendingViews(1L)).isEqualTo(1);
+    }
+}
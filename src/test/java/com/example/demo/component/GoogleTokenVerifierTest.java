@@ -0,0 +1,161 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the verifier against a local stand-in of Google's certificate endpoint
+ * (google.certs-url), with a test key pair from src/test/resources/google: no network.
+ */
+class GoogleTokenVerifierTest {
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+    private static final String KEY_ID = "test-kid";
+
+    private final AtomicInteger certFetches = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer certsServer;
+    private PrivateKey signingKey;
+    private GoogleTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String certificate = resource("google/test-cert.pem");
+        String certsJson = "{\"" + KEY_ID + "\": \"" + certificate.replace("\n", "\\n") + "\"}";
+        byte[] body = certsJson.getBytes(StandardCharsets.UTF_8);
+
+        certsServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        certsServer.createContext("/certs", exchange -> {
+            certFetches.incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        certsServer.start();
+
+        String pem = resource("google/test-key.pem").replaceAll("-----[A-Z ]+-----|\\s", "");
+        signingKey = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(pem)));
+
+        String certsUrl = "http://localhost:" + certsServer.getAddress().getPort() + "/certs";
+        verifier = new GoogleTokenVerifier(meterRegistry, CLIENT_ID, certsUrl, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        certsServer.stop(0);
+    }
+
+    @Test
+    void acceptsATokenSignedWithAServedKey() throws Exception {
+        GoogleIdToken.Payload payload = verifier.verify(idToken(CLIENT_ID, Instant.now().plusSeconds(600)));
+
+        assertThat(payload.getEmail()).isEqualTo("reader@example.com");
+        assertThat(payload.getSubject()).isEqualTo("google-sub-1");
+    }
+
+    @Test
+    void fetchesTheKeysOnceForManyLogins() throws Exception {
+        verifier.refreshIfExpiring();
+        for (int i = 0; i < 5; i++) {
+            verifier.verify(idToken(CLIENT_ID, Instant.now().plusSeconds(600)));
+        }
+
+        assertThat(certFetches.get()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.google.verify", "outcome", "valid").count()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsAnotherAudience() throws Exception {
+        String token = idToken("someone-else.apps.googleusercontent.com", Instant.now().plusSeconds(600));
+
+        assertInvalid(token);
+    }
+
+    @Test
+    void rejectsAnExpiredToken() throws Exception {
+        assertInvalid(idToken(CLIENT_ID, Instant.now().minus(Duration.ofHours(1))));
+    }
+
+    @Test
+    void rejectsATamperedToken() throws Exception {
+        String[] parts = idToken(CLIENT_ID, Instant.now().plusSeconds(600)).split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"iss\":\"https://accounts.google.com\",\"aud\":\"" + CLIENT_ID
+                        + "\",\"sub\":\"admin\",\"email\":\"admin@example.com\",\"exp\":"
+                        + Instant.now().plusSeconds(600).getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8));
+
+        assertInvalid(parts[0] + "." + forged + "." + parts[2]);
+    }
+
+    @Test
+    void countsRefreshFailuresAndKeepsWorkingKeys() throws Exception {
+        verifier.refreshIfExpiring();
+        certsServer.stop(0);
+
+        // Keys are valid for an hour, nothing to refresh yet and logins keep working offline
+        verifier.refreshIfExpiring();
+        verifier.verify(idToken(CLIENT_ID, Instant.now().plusSeconds(600)));
+
+        GoogleTokenVerifier unreachable = new GoogleTokenVerifier(meterRegistry, CLIENT_ID,
+                "http://localhost:" + certsServer.getAddress().getPort() + "/certs", Duration.ofMinutes(10));
+        unreachable.refreshIfExpiring();
+        assertThat(meterRegistry.counter("auth.google.keys.refresh.failures").count()).isEqualTo(1);
+    }
+
+    private void assertInvalid(String token) {
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INVALID_CREDENTIALS));
+    }
+
+    private String idToken(String audience, Instant expiresAt) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("https://accounts.google.com")
+                .audience(audience)
+                .subject("google-sub-1")
+                .claim("email", "reader@example.com")
+                .claim("name", "Test Reader")
+                .issueTime(Date.from(expiresAt.minus(Duration.ofHours(1))))
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = GoogleTokenVerifierTest.class.getClassLoader().getResourceAsStream(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
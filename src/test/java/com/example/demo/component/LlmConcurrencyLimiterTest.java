@@ -0,0 +1,173 @@
+package com.example.demo.component;
+
+import com.example.demo.component.LlmConcurrencyLimiter.Lane;
+import com.example.demo.component.LlmConcurrencyLimiter.Permit;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LlmConcurrencyLimiter limiter(int initialLimit, int minLimit, double backgroundShare) {
+        return new LlmConcurrencyLimiter(meterRegistry, initialLimit, minLimit, 64, 0.5, backgroundShare,
+                Duration.ofSeconds(2), Duration.ofSeconds(2));
+    }
+
+    // Limit pinned, so releases only hand slots over
+    private LlmConcurrencyLimiter fixed(int limit) {
+        return new LlmConcurrencyLimiter(meterRegistry, limit, limit, limit, 0.5, 1.0,
+                Duration.ofSeconds(2), Duration.ofSeconds(2));
+    }
+
+    @Test
+    void growsWhileTheLimitIsInUse() {
+        LlmConcurrencyLimiter limiter = limiter(4, 1, 1.0);
+
+        List<Permit> round = acquireAll(limiter, Lane.INTERACTIVE, 4);
+        round.forEach(Permit::success);
+
+        assertThat(limiter.getLimit()).isGreaterThan(4.4).isLessThan(5.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        LlmConcurrencyLimiter limiter = limiter(8, 1, 1.0);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire(Lane.INTERACTIVE).success();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8.0);
+    }
+
+    @Test
+    void oneBurstOfOverloadDecreasesOnce() {
+        LlmConcurrencyLimiter limiter = limiter(8, 1, 1.0);
+
+        List<Permit> burst = acquireAll(limiter, Lane.INTERACTIVE, 8);
+        burst.forEach(Permit::dropped);
+
+        assertThat(limiter.getLimit()).isEqualTo(4.0);
+        assertThat(meterRegistry.counter("ai.llm.limiter.decreases").count()).isEqualTo(1);
+    }
+
+    @Test
+    void neverDecreasesBelowTheMinimum() {
+        LlmConcurrencyLimiter limiter = limiter(4, 2, 1.0);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(Lane.INTERACTIVE).dropped();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void permitIsReleasedOnlyOnce() {
+        LlmConcurrencyLimiter limiter = limiter(2, 1, 1.0);
+        Permit permit = limiter.acquire(Lane.INTERACTIVE);
+
+        permit.ignore();
+        permit.ignore();
+        permit.dropped();
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void backgroundOnlyGetsItsShare() {
+        LlmConcurrencyLimiter limiter = limiter(4, 1, 0.5);
+
+        assertThat(limiter.tryAcquire(Lane.BACKGROUND)).isNotNull();
+        assertThat(limiter.tryAcquire(Lane.BACKGROUND)).isNotNull();
+        assertThat(limiter.tryAcquire(Lane.BACKGROUND)).isNull();
+        assertThat(limiter.tryAcquire(Lane.INTERACTIVE)).isNotNull();
+        assertThat(limiter.tryAcquire(Lane.INTERACTIVE)).isNotNull();
+        assertThat(limiter.tryAcquire(Lane.INTERACTIVE)).isNull();
+    }
+
+    @Test
+    void freedSlotGoesToTheInteractiveCallerFirst() throws Exception {
+        LlmConcurrencyLimiter limiter = fixed(1);
+        Permit running = limiter.acquire(Lane.INTERACTIVE);
+
+        CompletableFuture<Permit> background = CompletableFuture.supplyAsync(() -> limiter.acquire(Lane.BACKGROUND));
+        awaitWaiting(limiter, 1);
+        CompletableFuture<Permit> interactive = CompletableFuture.supplyAsync(() -> limiter.acquire(Lane.INTERACTIVE));
+        awaitWaiting(limiter, 2);
+
+        running.success();
+
+        Permit served = interactive.get(1, TimeUnit.SECONDS);
+        assertThat(background).isNotDone();
+
+        // Nobody interactive waits any more: the next free slot wakes the background caller
+        served.success();
+        background.get(1, TimeUnit.SECONDS).success();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void backgroundWaitsWhileInteractiveCallersQueue() throws Exception {
+        LlmConcurrencyLimiter limiter = fixed(2);
+        Permit first = limiter.acquire(Lane.INTERACTIVE);
+        Permit second = limiter.acquire(Lane.INTERACTIVE);
+
+        CompletableFuture<Permit> interactive = CompletableFuture.supplyAsync(() -> limiter.acquire(Lane.INTERACTIVE));
+        awaitWaiting(limiter, 1);
+        assertThat(limiter.tryAcquire(Lane.BACKGROUND)).isNull();
+        CompletableFuture<Permit> background = CompletableFuture.supplyAsync(() -> limiter.acquire(Lane.BACKGROUND));
+        awaitWaiting(limiter, 2);
+
+        first.success();
+        Permit third = interactive.get(1, TimeUnit.SECONDS);
+        assertThat(background).isNotDone();
+
+        // A slot frees up with nobody interactive left waiting
+        second.success();
+        background.get(1, TimeUnit.SECONDS).success();
+        third.success();
+    }
+
+    @Test
+    void givesUpAfterTheQueueTimeout() {
+        LlmConcurrencyLimiter limiter = new LlmConcurrencyLimiter(meterRegistry, 1, 1, 64, 0.5, 1.0,
+                Duration.ofMillis(50), Duration.ofMillis(50));
+        limiter.acquire(Lane.INTERACTIVE);
+
+        assertThatThrownBy(() -> limiter.acquire(Lane.INTERACTIVE))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.AI_UNAVAILABLE));
+        assertThat(limiter.getWaiting()).isZero();
+        assertThat(meterRegistry.counter("ai.llm.limiter.timeouts", "lane", "INTERACTIVE").count()).isEqualTo(1);
+    }
+
+    private static List<Permit> acquireAll(LlmConcurrencyLimiter limiter, Lane lane, int count) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.acquire(lane));
+        }
+        return permits;
+    }
+
+    private static void awaitWaiting(LlmConcurrencyLimiter limiter, int waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (limiter.getWaiting() < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getWaiting()).isEqualTo(waiting);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.component;
+
+import com.example.demo.entity.InvalidatedToken;
+import com.example.demo.repository.InvalidatedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenStoreTest {
+    private static final Date TOMORROW = new Date(System.currentTimeMillis() + 86_400_000L);
+
+    @Mock
+    InvalidatedTokenRepository invalidatedTokenRepository;
+
+    private RevokedTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RevokedTokenStore(invalidatedTokenRepository, 1_000, 0.001);
+    }
+
+    @Test
+    void asksTheTableUntilLoaded() {
+        when(invalidatedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertThat(store.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void answersFromMemoryOnceLoaded() {
+        when(invalidatedTokenRepository.findByExpiryTimeAfter(any())).thenReturn(List.of(token("revoked")));
+        store.load();
+
+        assertThat(store.isRevoked("revoked")).isTrue();
+        assertThat(store.isRevoked("live")).isFalse();
+        verify(invalidatedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void ownRevocationIsVisibleAtOnce() {
+        when(invalidatedTokenRepository.findByExpiryTimeAfter(any())).thenReturn(List.of());
+        store.load();
+
+        // No transaction active: remembered right away
+        store.revoke("logged-out", TOMORROW);
+
+        assertThat(store.isRevoked("logged-out")).isTrue();
+    }
+
+    @Test
+    void otherInstancesRevocationsShowUpAfterRefresh() {
+        when(invalidatedTokenRepository.findByExpiryTimeAfter(any())).thenReturn(List.of());
+        store.load();
+        assertThat(store.isRevoked("elsewhere")).isFalse();
+
+        when(invalidatedTokenRepository.findByRevokedAtAfter(any())).thenReturn(List.of(token("elsewhere")));
+        store.refresh();
+
+        assertThat(store.isRevoked("elsewhere")).isTrue();
+    }
+
+    @Test
+    void isRevokedNowReadsTheTable() {
+        when(invalidatedTokenRepository.findByExpiryTimeAfter(any())).thenReturn(List.of());
+        store.load();
+        when(invalidatedTokenRepository.existsById("elsewhere")).thenReturn(true);
+
+        assertThat(store.isRevoked("elsewhere")).isFalse();
+        assertThat(store.isRevokedNow("elsewhere")).isTrue();
+    }
+
+    private static InvalidatedToken token(String jti) {
+        return InvalidatedToken.builder().id(jti).expiryTime(TOMORROW).revokedAt(new Date()).build();
+    }
+}
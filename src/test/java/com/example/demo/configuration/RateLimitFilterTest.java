@@ -0,0 +1,88 @@
+package com.example.demo.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit perIp = new RateLimitProperties.Limit();
+        perIp.setCapacity(2);
+        perIp.setPeriod(Duration.ofMinutes(1));
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("login");
+        rule.setPaths(List.of("/auth/token"));
+        rule.setPerIp(perIp);
+        properties = new RateLimitProperties();
+        properties.setMaxKeys(10);
+        properties.setRules(List.of(rule));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void rejectsOnceTheBucketIsEmpty() throws Exception {
+        assertThat(login("198.51.100.1", null).getStatus()).isEqualTo(200);
+        assertThat(login("198.51.100.1", null).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = login("198.51.100.1", null);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+        assertThat(meterRegistry.counter("http.rate_limit.rejected", "rule", "login", "dimension", "ip").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void ignoresClientWrittenForwardedFor() throws Exception {
+        login("198.51.100.1", "10.0.0.1");
+        login("198.51.100.1", "10.0.0.2");
+
+        assertThat(login("198.51.100.1", "10.0.0.3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void keepsLimitingBeyondMaxKeys() throws Exception {
+        for (int i = 0; i < 5 * properties.getMaxKeys(); i++) {
+            login("192.0.2." + i, null);
+        }
+
+        login("198.51.100.1", null);
+        login("198.51.100.1", null);
+        assertThat(login("198.51.100.1", null).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void leavesOtherPathsAlone() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/blogs/published");
+            request.setRemoteAddr("198.51.100.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse login(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/token");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
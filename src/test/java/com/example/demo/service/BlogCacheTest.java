@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.entity.Blog;
+import com.example.demo.repository.BlogCategoryRepository;
+import com.example.demo.repository.BlogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Outside a transaction the counter buffers apply deltas right away
+@ExtendWith(MockitoExtension.class)
+class BlogCacheTest {
+    @Mock
+    BlogRepository blogRepository;
+    @Mock
+    BlogCategoryRepository blogCategoryRepository;
+    @Mock
+    BlogFeedAssembler blogFeedAssembler;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    BlogCounterBuffer blogCounterBuffer;
+    BlogViewTracker blogViewTracker;
+    BlogCache blogCache;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        blogCounterBuffer = new BlogCounterBuffer(jdbcTemplate);
+        blogViewTracker = new BlogViewTracker(jdbcTemplate, meterRegistry, 1000);
+        blogCache = new BlogCache(blogRepository, blogCategoryRepository, blogFeedAssembler, blogCounterBuffer,
+                blogViewTracker, meterRegistry, 100, Duration.ofMinutes(2), Duration.ofMinutes(30),
+                Duration.ofMinutes(30));
+
+        when(blogRepository.findDetailById(any())).thenAnswer(invocation -> {
+            Blog blog = new Blog();
+            blog.setId(invocation.getArgument(0));
+            return Optional.of(blog);
+        });
+        when(blogFeedAssembler.toSharedResponse(any())).thenAnswer(invocation -> BlogResponse.builder()
+                .id(invocation.<Blog>getArgument(0).getId())
+                .likeCount(3L)
+                .build());
+    }
+
+    @Test
+    void servesRepeatReadsFromTheCache() {
+        blogCache.findById(1L);
+        blogCache.findById(1L);
+
+        verify(blogRepository, times(1)).findDetailById(1L);
+    }
+
+    @Test
+    void likeFlushDropsTheCachedCounters() {
+        blogCache.findById(1L);
+        blogCache.findById(2L);
+
+        blogCounterBuffer.addLikesAfterCommit(1L, 1);
+        blogCounterBuffer.flush();
+        blogCache.findById(1L);
+        blogCache.findById(2L);
+
+        verify(blogRepository, times(2)).findDetailById(1L);
+        verify(blogRepository, times(1)).findDetailById(2L);
+    }
+
+    @Test
+    void viewFlushDropsTheCachedCounters() {
+        blogCache.findById(1L);
+
+        blogViewTracker.recordView(1L, "user:7");
+        blogViewTracker.flush();
+        blogCache.findById(1L);
+
+        verify(blogRepository, times(2)).findDetailById(1L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.dto.response.BlogResponse;
+import com.example.demo.entity.Blog;
+import com.example.demo.repository.BlogInteractionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counter arithmetic of the assembler; the queries a page costs are pinned
+ * against a real database in {@link BlogFeedQueryCountTest}.
+ */
+@ExtendWith(MockitoExtension.class)
+class BlogFeedAssemblerTest {
+    @Mock
+    BlogInteractionRepository blogInteractionRepository;
+    @Mock
+    BlogCounterBuffer blogCounterBuffer;
+    @Mock
+    BlogViewTracker blogViewTracker;
+    @Mock
+    CurrentUserResolver currentUserResolver;
+
+    @InjectMocks
+    BlogFeedAssembler blogFeedAssembler;
+
+    @Test
+    void addsPendingCountersToStoredOnes() {
+        Blog blog = blog(1L);
+        blog.setLikeCount(10L);
+        when(blogCounterBuffer.pendingLikes(1L)).thenReturn(2L);
+        when(blogViewTracker.pendingViews(1L)).thenReturn(5L);
+
+        BlogResponse response = blogFeedAssembler.assemble(blog);
+
+        assertThat(response.getLikeCount()).isEqualTo(12L);
+        assertThat(response.getViewCount()).isEqualTo(5);
+    }
+
+    @Test
+    void neverReportsANegativeCount() {
+        Blog blog = blog(1L);
+        blog.setCommentCount(1L);
+        when(blogCounterBuffer.pendingComments(1L)).thenReturn(-3L);
+
+        BlogResponse response = blogFeedAssembler.assemble(blog);
+
+        assertThat(response.getCommentCount()).isZero();
+    }
+
+    private static Blog blog(long id) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle("Blog " + id);
+        blog.setContent("Content " + id);
+        return blog;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.service;
+
+import com.example.demo.component.BlogCounterBuffer;
+import com.example.demo.component.BlogViewTracker;
+import com.example.demo.component.CurrentUserResolver;
+import com.example.demo.dto.response.BlogSummaryResponse;
+import com.example.demo.entity.Blog;
+import com.example.demo.entity.BlogCategory;
+import com.example.demo.entity.BlogInteraction;
+import com.example.demo.entity.ExpertProfile;
+import com.example.demo.entity.User;
+import com.example.demo.repository.BlogRepository;
+import com.example.demo.repository.BlogSummaryView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the number of SQL statements a feed page costs, whatever its size:
+ * the page itself is one summary select, assembling it is at most one more
+ * (the caller's liked set). Counted by Hibernate against an in-memory database.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Import(BlogFeedAssembler.class)
+class BlogFeedQueryCountTest {
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    BlogRepository blogRepository;
+    @Autowired
+    BlogFeedAssembler blogFeedAssembler;
+
+    @MockBean
+    BlogCounterBuffer blogCounterBuffer;
+    @MockBean
+    BlogViewTracker blogViewTracker;
+    @MockBean
+    CurrentUserResolver currentUserResolver;
+
+    Statistics statistics;
+    User reader;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        reader = entityManager.persist(user("reader"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 200 })
+    void readerPageCostsTwoStatements(int pageSize) {
+        List<Blog> blogs = publishBlogs(pageSize);
+        like(blogs.get(0));
+        when(currentUserResolver.getUserId()).thenReturn(reader.getId());
+
+        List<BlogSummaryResponse> responses = loadFeedPage(pageSize);
+
+        assertThat(responses).hasSize(pageSize);
+        assertThat(responses).filteredOn(BlogSummaryResponse::isLiked).hasSize(1);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getAuthorName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 200 })
+    void anonymousPageCostsOneStatement(int pageSize) {
+        publishBlogs(pageSize);
+
+        List<BlogSummaryResponse> responses = loadFeedPage(pageSize);
+
+        assertThat(responses).hasSize(pageSize);
+        assertThat(responses).noneMatch(BlogSummaryResponse::isLiked);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyPageCostsOneStatement() {
+        when(currentUserResolver.getUserId()).thenReturn(reader.getId());
+
+        assertThat(loadFeedPage(20)).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Same calls as BlogService's published feed; counting starts on an empty persistence context
+    private List<BlogSummaryResponse> loadFeedPage(int pageSize) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<BlogSummaryView> page = blogRepository.findSummaryPageByStatus(Blog.BlogStatus.PUBLISHED,
+                PageRequest.of(0, pageSize));
+        return blogFeedAssembler.assembleSummaries(page);
+    }
+
+    // Every other blog is written by an expert, so both author fallbacks are on the page
+    private List<Blog> publishBlogs(int count) {
+        BlogCategory category = new BlogCategory();
+        category.setName("Category");
+        entityManager.persist(category);
+
+        ExpertProfile expert = new ExpertProfile();
+        expert.setUser(entityManager.persist(user("expert")));
+        entityManager.persist(expert);
+
+        return IntStream.range(0, count).mapToObj(i -> {
+            Blog blog = new Blog();
+            blog.setTitle("Blog " + i);
+            blog.setContent("Content " + i);
+            blog.setCategory(category);
+            blog.setStatus(Blog.BlogStatus.PUBLISHED);
+            if (i % 2 == 0) {
+                blog.setAuthor(entityManager.persist(user("author" + i)));
+            } else {
+                blog.setExpert(expert);
+            }
+            return entityManager.persist(blog);
+        }).toList();
+    }
+
+    private void like(Blog blog) {
+        BlogInteraction interaction = new BlogInteraction();
+        interaction.setUser(reader);
+        interaction.setBlog(blog);
+        interaction.setInteractionType(BlogInteraction.InteractionType.LIKE);
+        entityManager.persist(interaction);
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .fullName("Full " + username)
+                .build();
+    }
+}
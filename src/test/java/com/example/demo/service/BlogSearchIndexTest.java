@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Blog;
+import com.example.demo.entity.BlogCategory;
+import com.example.demo.repository.BlogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Outside a transaction indexAfterCommit / removeAfterCommit apply right away
+class BlogSearchIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private BlogSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BlogSearchIndex(null, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void matchesWithoutDiacritics() {
+        index.indexAfterCommit(blog(1L, "Giấc ngủ ngon mỗi đêm", "Vài thói quen nhỏ", 1L, Blog.BlogStatus.PUBLISHED, 0));
+
+        assertThat(index.search("giac ngu", null, null, 0, 10).getBlogIds()).containsExactly(1L);
+        assertThat(index.search("GIẤC NGỦ", null, null, 0, 10).getBlogIds()).containsExactly(1L);
+    }
+
+    @Test
+    void searchesContentAndRanksTitleMatchesFirst() {
+        index.indexAfterCommit(blog(1L, "Thói quen buổi sáng", "Thiền giúp giảm lo âu", 1L, Blog.BlogStatus.PUBLISHED, 0));
+        index.indexAfterCommit(blog(2L, "Thiền cho người mới", "Bắt đầu từ hơi thở", 1L, Blog.BlogStatus.PUBLISHED, 1));
+        index.indexAfterCommit(blog(3L, "Ăn uống lành mạnh", "Rau xanh và trái cây", 1L, Blog.BlogStatus.PUBLISHED, 2));
+
+        BlogSearchIndex.SearchHits hits = index.search("thien", null, null, 0, 10);
+
+        assertThat(hits.getBlogIds()).containsExactly(2L, 1L);
+        assertThat(hits.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesCategoryAndStatusFilters() {
+        index.indexAfterCommit(blog(1L, "Lo âu", "", 1L, Blog.BlogStatus.PUBLISHED, 0));
+        index.indexAfterCommit(blog(2L, "Lo âu", "", 2L, Blog.BlogStatus.PUBLISHED, 1));
+        index.indexAfterCommit(blog(3L, "Lo âu", "", 1L, Blog.BlogStatus.DRAFT, 2));
+
+        assertThat(index.search("lo au", 1L, Blog.BlogStatus.PUBLISHED, 0, 10).getBlogIds()).containsExactly(1L);
+        assertThat(index.search("lo au", null, Blog.BlogStatus.PUBLISHED, 0, 10).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void paginatesAndCountsEveryMatch() {
+        for (long id = 1; id <= 5; id++) {
+            index.indexAfterCommit(blog(id, "Căng thẳng " + id, "", 1L, Blog.BlogStatus.PUBLISHED, (int) id));
+        }
+
+        BlogSearchIndex.SearchHits firstPage = index.search("cang thang", null, null, 0, 2);
+        BlogSearchIndex.SearchHits lastPage = index.search("cang thang", null, null, 4, 2);
+
+        assertThat(firstPage.getBlogIds()).hasSize(2);
+        assertThat(lastPage.getBlogIds()).hasSize(1);
+        assertThat(firstPage.getTotal()).isEqualTo(5);
+        assertThat(firstPage.getBlogIds()).doesNotContainAnyElementsOf(lastPage.getBlogIds());
+    }
+
+    @Test
+    void pageFarPastTheEndIsEmpty() {
+        index.indexAfterCommit(blog(1L, "Căng thẳng", "", 1L, Blog.BlogStatus.PUBLISHED, 0));
+
+        BlogSearchIndex.SearchHits hits = index.search("cang thang", null, null, Integer.MAX_VALUE - 50, 50);
+
+        assertThat(hits.getBlogIds()).isEmpty();
+        assertThat(hits.getTotal()).isEqualTo(1);
+        assertThat(index.search("", null, null, Integer.MAX_VALUE - 50, 50).getBlogIds()).isEmpty();
+    }
+
+    @Test
+    void blankQueryListsNewestFirst() {
+        index.indexAfterCommit(blog(1L, "Một", "", 1L, Blog.BlogStatus.PUBLISHED, 0));
+        index.indexAfterCommit(blog(2L, "Hai", "", 1L, Blog.BlogStatus.PUBLISHED, 2));
+        index.indexAfterCommit(blog(3L, "Ba", "", 1L, Blog.BlogStatus.PUBLISHED, 1));
+
+        assertThat(index.search("  ", null, null, 0, 10).getBlogIds()).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void reindexAndRemoveKeepTheIndexCurrent() {
+        index.indexAfterCommit(blog(1L, "Trầm cảm", "", 1L, Blog.BlogStatus.PUBLISHED, 0));
+        index.indexAfterCommit(blog(1L, "Hạnh phúc", "", 1L, Blog.BlogStatus.PUBLISHED, 0));
+
+        assertThat(index.search("tram cam", null, null, 0, 10).getBlogIds()).isEmpty();
+        assertThat(index.search("hanh phuc", null, null, 0, 10).getBlogIds()).containsExactly(1L);
+
+        index.removeAfterCommit(1L);
+
+        assertThat(index.search("hanh phuc", null, null, 0, 10).getBlogIds()).isEmpty();
+    }
+
+    @Test
+    void resyncPicksUpChangesMadeThroughAnotherInstance() {
+        BlogRepository blogRepository = mock(BlogRepository.class);
+        BlogSearchIndex synced = new BlogSearchIndex(blogRepository, Duration.ofMinutes(1));
+        when(blogRepository.findSearchRowsAfter(eq(0L), any())).thenReturn(List.of(
+                row(1L, "Lo âu", Blog.BlogStatus.PUBLISHED), row(2L, "Lo âu", Blog.BlogStatus.PUBLISHED)));
+        synced.rebuild();
+
+        // Elsewhere: post 1 went back to draft, post 2 was deleted
+        when(blogRepository.findSearchRowsUpdatedAfter(any(), eq(0L), any())).thenReturn(List.<Object[]>of(
+                row(1L, "Lo âu", Blog.BlogStatus.DRAFT)));
+        when(blogRepository.count()).thenReturn(1L);
+        when(blogRepository.findAllIds()).thenReturn(List.of(1L));
+        synced.resync();
+
+        assertThat(synced.search("lo au", null, Blog.BlogStatus.PUBLISHED, 0, 10).getBlogIds()).isEmpty();
+        assertThat(synced.search("lo au", null, null, 0, 10).getBlogIds()).containsExactly(1L);
+    }
+
+    @Test
+    void resyncSkipsTheIdScanWhenCountsAgree() {
+        BlogRepository blogRepository = mock(BlogRepository.class);
+        BlogSearchIndex synced = new BlogSearchIndex(blogRepository, Duration.ofMinutes(1));
+        when(blogRepository.findSearchRowsAfter(eq(0L), any())).thenReturn(List.<Object[]>of(
+                row(1L, "Lo âu", Blog.BlogStatus.PUBLISHED)));
+        synced.rebuild();
+        when(blogRepository.count()).thenReturn(1L);
+
+        synced.resync();
+
+        verify(blogRepository, never()).findAllIds();
+    }
+
+    // [id, title, content, categoryId, status, createdAt, updatedAt]
+    private static Object[] row(Long id, String title, Blog.BlogStatus status) {
+        return new Object[] { id, title, "", 1L, status, NOW, NOW };
+    }
+
+    static Blog blog(Long id, String title, String content, Long categoryId, Blog.BlogStatus status, int ageRank) {
+        BlogCategory category = new BlogCategory();
+        category.setId(categoryId);
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle(title);
+        blog.setContent(content);
+        blog.setCategory(category);
+        blog.setStatus(status);
+        blog.setCreatedAt(NOW.plusMinutes(ageRank));
+        return blog;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import com.example.demo.component.AiJobQueue;
+import com.example.demo.entity.AiChatSummary;
+import com.example.demo.entity.AiJob;
+import com.example.demo.repository.AiChatLogRepository;
+import com.example.demo.repository.AiChatSummaryRepository;
+import com.example.demo.repository.AiChatTurnView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Budget arithmetic: a 40-character ASCII message costs 10 + 4 tokens, so a
+ * turn costs 28 and a budget of 100 minus the new "hi" (5) fits three turns.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatMemoryTest {
+    private static final Long USER_ID = 42L;
+    private static final String FORTY_CHARS = "x".repeat(40);
+
+    @Mock
+    AiChatLogRepository aiChatLogRepository;
+    @Mock
+    AiChatSummaryRepository aiChatSummaryRepository;
+    @Mock
+    AiJobQueue aiJobQueue;
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    ChatMemory chatMemory;
+
+    @BeforeEach
+    void setUp() {
+        chatMemory = new ChatMemory(aiChatLogRepository, aiChatSummaryRepository, aiJobQueue, transactionTemplate,
+                true, 100, 20, 2);
+    }
+
+    @Test
+    void keepsTheNewestTurnsThatFitOldestFirst() {
+        runsTransactions();
+        when(aiChatLogRepository.findRecentTurns(USER_ID, 0L, PageRequest.of(0, 20))).thenReturn(turns(5, 1));
+
+        List<Message> context = chatMemory.contextFor(USER_ID, "hi");
+
+        assertThat(context).hasSize(6);
+        assertThat(context.get(0)).isInstanceOf(UserMessage.class);
+        assertThat(context.get(0).getContent()).isEqualTo("q3 " + FORTY_CHARS.substring(3));
+        assertThat(context.get(1)).isInstanceOf(AssistantMessage.class);
+        assertThat(context.get(4).getContent()).startsWith("q5 ");
+    }
+
+    @Test
+    void trimmedTurnsAreQueuedForFolding() {
+        runsTransactions();
+        when(aiChatLogRepository.findRecentTurns(USER_ID, 0L, PageRequest.of(0, 20))).thenReturn(turns(5, 1));
+
+        chatMemory.contextFor(USER_ID, "hi");
+
+        // Everything but the newest keep-turns (ids 5 and 4)
+        verify(aiJobQueue).enqueue(AiJob.Type.CHAT_SUMMARY, USER_ID, "3");
+    }
+
+    @Test
+    void summaryComesFirstAndOnlyLaterTurnsAreLoaded() {
+        when(aiChatSummaryRepository.findById(USER_ID)).thenReturn(Optional.of(AiChatSummary.builder()
+                .userId(USER_ID).summary("likes hiking").summarizedUntilId(10L).build()));
+        when(aiChatLogRepository.findRecentTurns(USER_ID, 10L, PageRequest.of(0, 20))).thenReturn(turns(12, 11));
+
+        List<Message> context = chatMemory.contextFor(USER_ID, "hi");
+
+        assertThat(context).hasSize(1 + 4);
+        assertThat(context.get(0)).isInstanceOf(SystemMessage.class);
+        assertThat(context.get(0).getContent()).isEqualTo(ChatMemory.SUMMARY_PREFIX + "likes hiking");
+        assertThat(context.get(1).getContent()).startsWith("q11 ");
+        verifyNoInteractions(aiJobQueue);
+    }
+
+    @Test
+    void aTurnLargerThanTheBudgetIsLeftOut() {
+        when(aiChatLogRepository.findRecentTurns(eq(USER_ID), anyLong(), any())).thenReturn(List.of(
+                new Turn(1L, "q".repeat(400), "a")));
+
+        assertThat(chatMemory.contextFor(USER_ID, "hi")).isEmpty();
+    }
+
+    @Test
+    void anonymousOrDisabledGetsNoContext() {
+        ChatMemory disabled = new ChatMemory(aiChatLogRepository, aiChatSummaryRepository, aiJobQueue,
+                transactionTemplate, false, 100, 20, 2);
+
+        assertThat(chatMemory.contextFor(null, "hi")).isEmpty();
+        assertThat(disabled.contextFor(USER_ID, "hi")).isEmpty();
+        verifyNoInteractions(aiChatLogRepository, aiChatSummaryRepository);
+    }
+
+    @Test
+    void loadingFailureMeansNoContext() {
+        when(aiChatSummaryRepository.findById(USER_ID)).thenThrow(new IllegalStateException("database down"));
+
+        assertThat(chatMemory.contextFor(USER_ID, "hi")).isEmpty();
+    }
+
+    private void runsTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    // Newest first, as the repository returns them
+    private static List<AiChatTurnView> turns(long newestId, long oldestId) {
+        return LongStream.iterate(newestId, id -> id >= oldestId, id -> id - 1)
+                .<AiChatTurnView>mapToObj(id -> new Turn(id,
+                        ("q" + id + " " + FORTY_CHARS).substring(0, 40),
+                        ("a" + id + " " + FORTY_CHARS).substring(0, 40)))
+                .toList();
+    }
+
+    private record Turn(Long getId, String getUserMessage, String getAiResponse) implements AiChatTurnView {
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlogCursorTest {
+    @Test
+    void roundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 17, 8, 30, 15, 123_456_000);
+
+        BlogCursor decoded = BlogCursor.decode(new BlogCursor(createdAt, 42L).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodesToAnUrlSafeToken() {
+        String token = new BlogCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "not base64!", "2024-01-01T00:00|1", "%%%" })
+    void rejectsGarbage(String token) {
+        assertInvalid(token);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2024-01-01T00:00", "yesterday|1", "2024-01-01T00:00|abc", "2024-01-01T00:00|" })
+    void rejectsWellEncodedButMalformedPositions(String raw) {
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertInvalid(String token) {
+        assertThatThrownBy(() -> BlogCursor.decode(token))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR));
+    }
+}
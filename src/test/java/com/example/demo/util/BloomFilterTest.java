@@ -0,0 +1,63 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+    private static final int EXPECTED = 10_000;
+    private static final double RATE = 0.01;
+
+    @Test
+    void neverForgetsAnEntry() {
+        BloomFilter filter = new BloomFilter(EXPECTED, RATE);
+        List<String> jtis = jtis(EXPECTED);
+        jtis.forEach(filter::put);
+
+        assertThat(jtis).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(EXPECTED, RATE);
+        jtis(EXPECTED).forEach(filter::put);
+
+        long falsePositives = jtis(100_000).stream().filter(filter::mightContain).count();
+
+        // Expected about 1 000; twice that still means the sizing is right
+        assertThat(falsePositives).isLessThan(2 * (long) (100_000 * RATE));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(EXPECTED, RATE);
+
+        assertThat(jtis(1_000)).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() {
+        BloomFilter filter = new BloomFilter(EXPECTED, RATE);
+        List<List<String>> batches = IntStream.range(0, 8).mapToObj(i -> jtis(EXPECTED / 8)).toList();
+
+        CompletableFuture.allOf(batches.stream()
+                .map(batch -> CompletableFuture.runAsync(() -> batch.forEach(filter::put)))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).allMatch(filter::mightContain));
+    }
+
+    private static List<String> jtis(int count) {
+        List<String> jtis = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jtis.add(UUID.randomUUID().toString());
+        }
+        return jtis;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private static final long OPEN_NANOS = Duration.ofSeconds(30).toNanos();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30));
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        fail(0);
+        fail(0);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        CircuitBreaker.Ticket refused = breaker.tryAcquire(1);
+        assertThat(refused.allowed()).isFalse();
+        assertThat(refused.waitNanos()).isEqualTo(OPEN_NANOS - 1);
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        fail(0);
+        fail(0);
+        breaker.onSuccess(breaker.tryAcquire(0));
+        fail(0);
+        fail(0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneProbeThroughWhenHalfOpen() {
+        open();
+
+        CircuitBreaker.Ticket probe = breaker.tryAcquire(OPEN_NANOS);
+        assertThat(probe.allowed()).isTrue();
+        assertThat(probe.probe()).isTrue();
+        assertThat(breaker.tryAcquire(OPEN_NANOS).allowed()).isFalse();
+
+        breaker.onSuccess(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire(OPEN_NANOS).probe()).isFalse();
+    }
+
+    @Test
+    void failedProbeOpensAgain() {
+        open();
+        CircuitBreaker.Ticket probe = breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onFailure(probe, OPEN_NANOS);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS + 1).allowed()).isFalse();
+    }
+
+    @Test
+    void ignoredProbeFreesTheProbeSlot() {
+        open();
+        CircuitBreaker.Ticket probe = breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onIgnored(probe);
+
+        assertThat(breaker.tryAcquire(OPEN_NANOS).probe()).isTrue();
+    }
+
+    @Test
+    void ignoredCallFromBeforeTheOpeningKeepsTheProbeSlot() {
+        CircuitBreaker.Ticket early = breaker.tryAcquire(0);
+        open();
+        CircuitBreaker.Ticket probe = breaker.tryAcquire(OPEN_NANOS);
+        assertThat(probe.probe()).isTrue();
+
+        // e.g. a call cancelled by a lost hedge race, admitted while still closed
+        breaker.onIgnored(early);
+
+        assertThat(breaker.tryAcquire(OPEN_NANOS).allowed()).isFalse();
+    }
+
+    private void open() {
+        fail(0);
+        fail(0);
+        fail(0);
+    }
+
+    private void fail(long nowNanos) {
+        breaker.onFailure(breaker.tryAcquire(nowNanos), nowNanos);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFoldingUtilTest {
+    @ParameterizedTest
+    @CsvSource({
+            "Giấc Ngủ, giac ngu",
+            "Đêm trắng, dem trang",
+            "ĐỘC THOẠI, doc thoai",
+            "Lo âu & trầm cảm, lo au & tram cam",
+            "ứng phó căng thẳng, ung pho cang thang",
+            "already plain, already plain"
+    })
+    void foldsVietnameseToPlainLowercase(String text, String folded) {
+        assertThat(TextFoldingUtil.fold(text)).isEqualTo(folded);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "Giấc ngủ", "giấc ngủ", "GIẤC NGỦ", "giac ngu" })
+    void foldsEverySpellingOfAWordTheSame(String text) {
+        assertThat(TextFoldingUtil.fold(text)).isEqualTo("giac ngu");
+    }
+
+    @Test
+    void foldsNullToEmpty() {
+        assertThat(TextFoldingUtil.fold(null)).isEmpty();
+    }
+}
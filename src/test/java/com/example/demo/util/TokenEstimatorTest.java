@@ -0,0 +1,44 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', 0",
+            "a, 1",
+            "abcd, 1",
+            "abcde, 2",
+            "'hello world, how are you', 6",
+            // Non-ASCII letters count one token each
+            "Việt, 2",
+            "xin chào, 3"
+    })
+    void estimatesTokens(String text, int expected) {
+        assertThat(TokenEstimator.estimate(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void nullCostsNothing() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+    }
+
+    @Test
+    void messageAddsTheOverhead() {
+        assertThat(TokenEstimator.estimateMessage("abcd")).isEqualTo(1 + TokenEstimator.MESSAGE_OVERHEAD);
+        assertThat(TokenEstimator.estimateMessage("")).isEqualTo(TokenEstimator.MESSAGE_OVERHEAD);
+    }
+
+    @Test
+    void errsOnTheHighSideForAccentedText() {
+        String plain = "Hom nay toi cam thay rat vui";
+        String accented = "Hôm nay tôi cảm thấy rất vui";
+
+        assertThat(TokenEstimator.estimate(accented)).isGreaterThan(TokenEstimator.estimate(plain));
+    }
+}